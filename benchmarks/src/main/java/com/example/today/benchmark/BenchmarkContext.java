@@ -0,0 +1,59 @@
+package com.example.today.benchmark;
+
+import com.example.today.Model.Product;
+import com.example.today.Repository.ProductRepository;
+import com.example.today.TodayApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server against a private in-memory H2
+ * database. Command-line style arguments are used because they take precedence
+ * over the PostgreSQL settings in application.properties.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(TodayApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.open-in-view=false",
+                        "--logging.level.root=WARN");
+    }
+
+    static List<Product> seedProducts(ProductRepository productRepository, int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product();
+            product.setId(String.valueOf(i));
+            product.setName("Benchmark product " + i);
+            product.setDescription("Description of benchmark product " + i);
+            product.setPrice(9.99 + i);
+            product.setDiscount(i % 30);
+            product.setImage("product-" + i + ".jpg");
+            product.setCategory("category-" + (i % 8));
+            product.setBrand("brand-" + (i % 12));
+            product.setRating(3.5);
+            product.setReviews(i);
+            product.setStock(Integer.MAX_VALUE / 2);
+            product.setSeller_id(1000L + (i % 5));
+            product.setCreatedAt(Instant.now());
+            products.add(product);
+        }
+        return productRepository.saveAll(products);
+    }
+}
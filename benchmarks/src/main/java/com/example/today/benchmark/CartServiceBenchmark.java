@@ -0,0 +1,64 @@
+package com.example.today.benchmark;
+
+import com.example.today.Model.Cart;
+import com.example.today.Model.Product;
+import com.example.today.Repository.ProductRepository;
+import com.example.today.Service.CartService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart read and quantity-update cost as the cart grows. Both load the cart
+ * with its items and products in one fetch-joined query; an update then
+ * applies a delta to the stored totals, so what grows with cart size is the
+ * load and the flush-time dirty check, not the totals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartServiceBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({"10", "100"})
+    public int cartSize;
+
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private Long cartItemId;
+    private int quantity = 1;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("cart" + cartSize);
+        cartService = context.getBean(CartService.class);
+        List<Product> products = BenchmarkContext.seedProducts(context.getBean(ProductRepository.class), cartSize);
+        Cart cart = null;
+        for (Product product : products) {
+            cart = cartService.addItemToCart(USER_ID, Long.valueOf(product.getId()), 1);
+        }
+        cartItemId = cart.getItems().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Cart updateCartItem() {
+        quantity = quantity == 1 ? 2 : 1;
+        return cartService.updateCartItem(USER_ID, cartItemId, quantity);
+    }
+
+    @Benchmark
+    public Cart getCart() {
+        return cartService.getCartByUserId(USER_ID);
+    }
+}
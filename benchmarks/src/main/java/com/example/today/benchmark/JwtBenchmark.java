@@ -0,0 +1,61 @@
+package com.example.today.benchmark;
+
+import com.example.today.Model.User;
+import com.example.today.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jwtTokenProvider = new JwtTokenProvider();
+        setField("secretKey", "hHp0VOc3v2oqXVEq52mOCEI+VgUmV9Nj+2cmN0GgGM0=");
+        setField("jwtExpiration", 3_600_000L);
+        Method init = JwtTokenProvider.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(jwtTokenProvider);
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("benchmark@example.com");
+        user.setRole("USER");
+        user.setVerified(true);
+        token = jwtTokenProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtTokenProvider.extractUsername(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> parseClaims() {
+        return jwtTokenProvider.parseClaims(token);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = JwtTokenProvider.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtTokenProvider, value);
+    }
+}
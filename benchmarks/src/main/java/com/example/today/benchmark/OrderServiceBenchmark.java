@@ -0,0 +1,58 @@
+package com.example.today.benchmark;
+
+import com.example.today.Model.Order;
+import com.example.today.Model.Product;
+import com.example.today.Repository.ProductRepository;
+import com.example.today.Service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout cost by number of order lines: product lookup, stock reservation
+ * and order/line inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private List<OrderService.OrderItemRequest> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("order" + lines);
+        orderService = context.getBean(OrderService.class);
+        List<Product> products = BenchmarkContext.seedProducts(context.getBean(ProductRepository.class), lines);
+        items = new ArrayList<>(lines);
+        for (Product product : products) {
+            OrderService.OrderItemRequest item = new OrderService.OrderItemRequest();
+            item.setProductId(Long.valueOf(product.getId()));
+            item.setQuantity(1);
+            items.add(item);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(USER_ID, "1 Benchmark Street", "card", items);
+    }
+}
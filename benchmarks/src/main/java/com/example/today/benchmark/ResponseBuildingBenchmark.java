@@ -0,0 +1,95 @@
+package com.example.today.benchmark;
+
+import com.example.today.Controller.CartController;
+import com.example.today.Controller.OrderController;
+import com.example.today.Model.Order;
+import com.example.today.Model.Product;
+import com.example.today.Repository.ProductRepository;
+import com.example.today.Service.CartService;
+import com.example.today.Service.OrderService;
+import com.example.today.security.JwtUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller response building plus JSON serialization for a cart and an
+ * order, the way a request would produce them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseBuildingBenchmark {
+
+    private static final Long CART_USER_ID = 1L;
+    private static final Long ORDER_USER_ID = 2L;
+
+    @Param({"10", "100"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private CartController cartController;
+    private OrderController orderController;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate readOnlyTransaction;
+    private JwtUserPrincipal cartUser;
+    private JwtUserPrincipal orderUser;
+    private Long orderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("response" + items);
+        cartController = context.getBean(CartController.class);
+        orderController = context.getBean(OrderController.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        cartUser = new JwtUserPrincipal(CART_USER_ID, "cart@example.com", "USER", true);
+        orderUser = new JwtUserPrincipal(ORDER_USER_ID, "order@example.com", "USER", true);
+
+        List<Product> products = BenchmarkContext.seedProducts(context.getBean(ProductRepository.class), items);
+        CartService cartService = context.getBean(CartService.class);
+        List<OrderService.OrderItemRequest> orderItems = new ArrayList<>(items);
+        for (Product product : products) {
+            cartService.addItemToCart(CART_USER_ID, Long.valueOf(product.getId()), 1);
+            OrderService.OrderItemRequest item = new OrderService.OrderItemRequest();
+            item.setProductId(Long.valueOf(product.getId()));
+            item.setQuantity(1);
+            orderItems.add(item);
+        }
+        Order order = context.getBean(OrderService.class)
+                .createOrder(ORDER_USER_ID, "1 Benchmark Street", "card", orderItems);
+        orderId = order.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] cartResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(cartController.getCart(cartUser).getBody());
+    }
+
+    @Benchmark
+    public byte[] orderResponse() {
+        // Order lines are lazy; a request would read them under open-in-view
+        return readOnlyTransaction.execute(status -> {
+            try {
+                return objectMapper.writeValueAsBytes(orderController.getOrder(orderUser, orderId).getBody());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.today.Controller;
+
+import com.example.today.Service.ProductCache;
+import com.example.today.security.PrincipalCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final ProductCache productCache;
+    private final PrincipalCache principalCache;
+
+    public AdminController(ProductCache productCache, PrincipalCache principalCache) {
+        this.productCache = productCache;
+        this.principalCache = principalCache;
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("products", productCache.stats());
+        response.put("principals", principalCache.stats());
+        return ResponseEntity.ok(response);
+    }
+}
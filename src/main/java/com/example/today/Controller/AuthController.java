@@ -4,6 +4,7 @@ import com.example.today.Model.User;
 import com.example.today.Repository.UserRepository;
 import com.example.today.exception.EmailAlreadyExistsException;
 import com.example.today.security.JwtTokenProvider;
+import com.example.today.security.UserPrincipal;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -38,6 +39,10 @@ public class AuthController {
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody User userRequest) {
+        if (UserPrincipal.ADMIN_ROLE.equalsIgnoreCase(userRequest.getRole())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(errorResponse("The admin role cannot be self-assigned"));
+        }
         if (userRepository.existsByEmail(userRequest.getEmail())) {
             throw new EmailAlreadyExistsException("Email already in use");
         }
@@ -74,12 +79,18 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal User user) {
-        if (user == null) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(errorResponse("Invalid or expired token"));
         }
-        return ResponseEntity.ok(user);
+        if (principal instanceof User user) {
+            return ResponseEntity.ok(user);
+        }
+        return userRepository.findById(principal.getId())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(errorResponse("Invalid or expired token")));
     }
 
     private Map<String, Object> successResponse(User user, String token) {
@@ -2,16 +2,16 @@ package com.example.today.Controller;
 
 import com.example.today.Model.*;
 import com.example.today.Service.CartService;
+import com.example.today.dto.CartResponse;
+import com.example.today.dto.CartValidationResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import com.example.today.Model.User;
+import com.example.today.security.UserPrincipal;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.List;
-import java.util.ArrayList;
 
 @RestController
 @RequestMapping("/api/cart")
@@ -24,14 +24,14 @@ public class CartController {
     }
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getCart(@AuthenticationPrincipal User user) {
+    public ResponseEntity<Map<String, Object>> getCart(@AuthenticationPrincipal UserPrincipal user) {
         Cart cart = cartService.getCartByUserId(user.getId());
         return buildSuccessCartResponse(cart);
     }
 
     @PostMapping("/items")
     public ResponseEntity<Map<String, Object>> addItemToCart(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestBody Map<String, Object> request) {
 
         Long productId = Long.valueOf(request.get("product_id").toString());
@@ -47,7 +47,7 @@ public class CartController {
 
     @PutMapping("/items/{cartItemId}")
     public ResponseEntity<Map<String, Object>> updateCartItem(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long cartItemId,
             @RequestBody Map<String, Integer> request) {
 
@@ -63,7 +63,7 @@ public class CartController {
 
     @DeleteMapping("/items/{cartItemId}")
     public ResponseEntity<Map<String, Object>> removeCartItem(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long cartItemId) {
 
         try {
@@ -89,7 +89,7 @@ public class CartController {
     }
 
     @DeleteMapping
-    public ResponseEntity<Map<String, Object>> clearCart(@AuthenticationPrincipal User user) {
+    public ResponseEntity<Map<String, Object>> clearCart(@AuthenticationPrincipal UserPrincipal user) {
         Cart cart = cartService.clearCart(user.getId());
 
         Map<String, Object> response = buildSuccessCartResponse(cart).getBody();
@@ -101,12 +101,12 @@ public class CartController {
     }
 
     @PostMapping("/validate")
-    public ResponseEntity<Map<String, Object>> validateCart(@AuthenticationPrincipal User user) {
+    public ResponseEntity<Map<String, Object>> validateCart(@AuthenticationPrincipal UserPrincipal user) {
         CartService.CartValidationResult result = cartService.validateCart(user.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("validation", buildValidationResponse(result));
+        response.put("validation", CartValidationResponse.of(result));
         return ResponseEntity.ok(response);
     }
 
@@ -117,7 +117,7 @@ public class CartController {
     private ResponseEntity<Map<String, Object>> buildSuccessCartResponse(Cart cart, String message) {
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("cart", buildCartResponse(cart));
+        response.put("cart", CartResponse.of(cart));
 
         if (message != null) {
             response.put("message", message);
@@ -126,66 +126,6 @@ public class CartController {
         return ResponseEntity.ok(response);
     }
 
-    private Map<String, Object> buildCartResponse(Cart cart) {
-        Map<String, Object> cartData = new HashMap<>();
-        cartData.put("id", cart.getId());
-        cartData.put("user_id", cart.getUserId());
-        cartData.put("total_items", cart.getTotalItems());
-        cartData.put("subtotal", cart.getSubtotal());
-        cartData.put("created_at", cart.getCreatedAt());
-        cartData.put("updated_at", cart.getUpdatedAt());
-
-        List<Map<String, Object>> items = new ArrayList<>();
-        for (CartItem item : cart.getItems()) {
-            items.add(buildCartItemResponse(item));
-        }
-        cartData.put("items", items);
-
-        return cartData;
-    }
-
-    private Map<String, Object> buildCartItemResponse(CartItem item) {
-        Map<String, Object> itemData = new HashMap<>();
-        itemData.put("id", item.getId());
-        itemData.put("quantity", item.getQuantity());
-        itemData.put("selected_color", item.getSelectedColor());
-        itemData.put("added_at", item.getAddedAt());
-        itemData.put("updated_at", item.getUpdatedAt());
-
-        Map<String, Object> productData = new HashMap<>();
-        Product product = item.getProduct();
-        productData.put("id", product.getId());
-        productData.put("name", product.getName());
-        productData.put("description", product.getDescription());
-        productData.put("price", product.getPrice());
-        productData.put("image_url", product.getImage());
-        productData.put("stock", product.getStock());
-        productData.put("category", product.getCategory());
-        productData.put("brand", product.getBrand());
-
-        itemData.put("product", productData);
-        return itemData;
-    }
-
-    private Map<String, Object> buildValidationResponse(CartService.CartValidationResult result) {
-        Map<String, Object> validationData = new HashMap<>();
-        validationData.put("valid", result.isValid());
-
-        List<Map<String, Object>> issues = new ArrayList<>();
-        if (result.getIssues() != null) {
-            for (CartService.CartIssue issue : result.getIssues()) {
-                Map<String, Object> issueData = new HashMap<>();
-                issueData.put("issue_type", issue.getIssueType());
-                issueData.put("message", issue.getMessage());
-                issueData.put("cart_item", buildCartItemResponse(issue.getItem()));
-                issues.add(issueData);
-            }
-        }
-        validationData.put("issues", issues);
-
-        return validationData;
-    }
-
     private ResponseEntity<Map<String, Object>> handleCartError(RuntimeException e) {
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("success", false);
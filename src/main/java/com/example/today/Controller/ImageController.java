@@ -0,0 +1,80 @@
+package com.example.today.Controller;
+
+import com.example.today.Service.FileStorageService;
+import com.example.today.Service.ImageDerivativeService;
+import com.example.today.util.FileResponses;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private static final CacheControl FALLBACK_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
+    private final FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final CacheControl imageCacheControl;
+
+    public ImageController(FileStorageService fileStorageService,
+                           ImageDerivativeService imageDerivativeService,
+                           @Value("${app.images.cache-max-age:30d}") Duration imageMaxAge) {
+        this.fileStorageService = fileStorageService;
+        this.imageDerivativeService = imageDerivativeService;
+        // Stored names are random and never reused, so the bytes behind a URL do not change
+        this.imageCacheControl = CacheControl.maxAge(imageMaxAge).cachePublic();
+    }
+
+    // Upload a product image; thumbnails are generated in the background
+    @PostMapping
+    public ResponseEntity<?> uploadImage(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
+        }
+        if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Only images are allowed"));
+        }
+        try {
+            String fileName = fileStorageService.storeImage(file);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "fileName", fileName,
+                    "url", "/api/images/" + fileName
+            ));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to upload image"));
+        }
+    }
+
+    // Serve an image, optionally as a thumb, small or medium derivative
+    @GetMapping("/{fileName:.+}")
+    public ResponseEntity<Resource> getImage(@PathVariable String fileName,
+                                             @RequestParam(required = false) String size,
+                                             ServletWebRequest webRequest) {
+        ImageDerivativeService.Size requested = ImageDerivativeService.Size.from(size);
+        Optional<Path> original = fileStorageService.find(fileName);
+        if (original.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ImageDerivativeService.Resolved resolved = imageDerivativeService.resolve(original.get(), requested);
+        // A provisional original is replaced once its derivative exists, so it is only briefly cacheable
+        CacheControl cacheControl = resolved.provisional() ? FALLBACK_CACHE_CONTROL : imageCacheControl;
+        return FileResponses.serve(resolved.path(), cacheControl, webRequest);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
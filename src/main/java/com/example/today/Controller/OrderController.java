@@ -1,14 +1,25 @@
 package com.example.today.Controller;
 
 import com.example.today.Model.*;
-import com.example.today.Repository.ProductRepository;
+import com.example.today.Service.IdempotencyService;
+import com.example.today.Service.OrderExportService;
 import com.example.today.Service.OrderService;
+import com.example.today.dto.CursorPage;
+import com.example.today.dto.OrderResponse;
+import com.example.today.dto.SellerOrderLine;
+import com.example.today.dto.SellerOrderLineResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import com.example.today.Model.User;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.example.today.security.UserPrincipal;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -17,17 +28,26 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/orders")
 public class OrderController {
     private final OrderService orderService;
-    private final ProductRepository productRepository;
+    private final OrderExportService orderExportService;
+    private final IdempotencyService idempotencyService;
+    private static final int MAX_SELLER_FEED_PAGE_SIZE = 200;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
 
     @Autowired
-    public OrderController(OrderService orderService, ProductRepository productRepository) {
+    public OrderController(OrderService orderService,
+                           OrderExportService orderExportService,
+                           IdempotencyService idempotencyService) {
         this.orderService = orderService;
-        this.productRepository = productRepository;
+        this.orderExportService = orderExportService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createOrder(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<?> createOrder(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, Object> request) {
 
         String shippingAddress = (String) request.get("shipping_address");
@@ -41,34 +61,77 @@ public class OrderController {
             return itemRequest;
         }).collect(Collectors.toList());
 
-        Order order = orderService.createOrder(user.getId(), shippingAddress, paymentMethod, items);
-        return ResponseEntity.ok(buildOrderResponse(order));
+        if (idempotencyKey == null) {
+            Order order = orderService.createOrder(user.getId(), shippingAddress, paymentMethod, items);
+            return ResponseEntity.ok(OrderResponse.of(order));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"));
+        }
+
+        IdempotencyService.Claim claim = idempotencyService.claim(user.getId(), idempotencyKey,
+                IdempotencyService.hash(canonicalOrderRequest(shippingAddress, paymentMethod, items)));
+        switch (claim.outcome()) {
+            case REPLAY:
+                return ResponseEntity.ok().header(IDEMPOTENT_REPLAYED_HEADER, "true").body(claim.response());
+            case IN_PROGRESS:
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error",
+                        "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed"));
+            case MISMATCH:
+                return ResponseEntity.unprocessableEntity().body(Map.of("error",
+                        IDEMPOTENCY_KEY_HEADER + " was already used for a different request"));
+            default:
+                break;
+        }
+
+        try {
+            Order order = orderService.createOrder(user.getId(), shippingAddress, paymentMethod, items, claim);
+            return ResponseEntity.ok(OrderResponse.of(order));
+        } catch (RuntimeException e) {
+            idempotencyService.release(claim);
+            throw e;
+        }
     }
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getOrders(
-            @AuthenticationPrincipal User user) {
-        List<Order> orders = orderService.getOrdersByUserId(user.getId());
-        List<Map<String, Object>> response = orders.stream()
-                .map(this::buildOrderResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<CursorPage<OrderResponse>> getOrders(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Order> page = orderService.getOrderHistoryPage(user.getId(), cursor, limit);
+        List<OrderResponse> items = new ArrayList<>(page.items().size());
+        for (Order order : page.items()) {
+            items.add(OrderResponse.of(order));
+        }
+        return ResponseEntity.ok(new CursorPage<>(items, page.nextCursor(), page.hasMore()));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(defaultValue = "json") String format) {
+        OrderExportService.Format exportFormat = OrderExportService.Format.from(format);
+
+        Long userId = user.getId();
+        StreamingResponseBody body = out -> orderExportService.exportOrders(userId, exportFormat, out);
+        return exportResponse("orders", exportFormat, body);
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<Map<String, Object>> getOrder(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<OrderResponse> getOrder(
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long orderId) {
         Optional<Order> order = orderService.getOrderById(orderId);
         if (order.isEmpty() || !order.get().getUserId().equals(user.getId())) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(buildOrderResponse(order.get()));
+        return ResponseEntity.ok(OrderResponse.of(order.get()));
     }
 
     @PutMapping("/{orderId}/status")
     public ResponseEntity<Map<String, Object>> updateOrderStatus(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long orderId,
             @RequestBody Map<String, String> request) {
 
@@ -78,74 +141,126 @@ public class OrderController {
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Order status updated successfully");
         response.put("order_id", orderId);
-        response.put("new_status", newStatus);
+        response.put("new_status", updatedOrder.getStatus().getValue());
 
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/seller/{sellerId}")
-    public ResponseEntity<List<Map<String, Object>>> getOrdersBySeller(
-            @AuthenticationPrincipal User user,
-            @PathVariable Long sellerId) {
+    public ResponseEntity<Map<String, Object>> getOrdersBySeller(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long sellerId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "desc") String direction) {
         if (!user.getId().equals(sellerId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<OrderItem> orderItems = orderService.getOrderItemsBySeller(sellerId);
-        List<Map<String, Object>> response = orderItems.stream().map(item -> {
-            Map<String, Object> itemData = new HashMap<>();
-            itemData.put("order_id", item.getOrder().getId());
-            itemData.put("order_status", item.getOrder().getStatus()); // Status included here
-            itemData.put("product_id", item.getProductId());
-            itemData.put("quantity", item.getQuantity());
-            itemData.put("price", item.getPrice());
-            itemData.put("order_date", item.getOrder().getCreatedAt());
-
-            Optional<Product> product = productRepository.findById(String.valueOf(item.getProductId()));
-            if (product.isPresent()) {
-                Map<String, Object> productData = new HashMap<>();
-                productData.put("name", product.get().getName());
-                productData.put("image", product.get().getImage());
-                itemData.put("product", productData);
-            }
-
-            Map<String, Object> customerInfo = new HashMap<>();
-            customerInfo.put("shipping_address", item.getOrder().getShippingAddress());
-            itemData.put("customer_info", customerInfo);
-
-            return itemData;
-        }).collect(Collectors.toList());
+        int pageSize = Math.max(1, Math.min(size, MAX_SELLER_FEED_PAGE_SIZE));
+        Slice<SellerOrderLine> lines = orderService.getSellerOrderFeed(
+                sellerId, Math.max(page, 0), pageSize, "asc".equalsIgnoreCase(direction));
+
+        List<SellerOrderLineResponse> items = new ArrayList<>(lines.getNumberOfElements());
+        for (SellerOrderLine line : lines) {
+            items.add(SellerOrderLineResponse.of(line));
+        }
 
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", items);
+        response.put("page", lines.getNumber());
+        response.put("size", pageSize);
+        response.put("has_next", lines.hasNext());
         return ResponseEntity.ok(response);
     }
 
-    private Map<String, Object> buildOrderResponse(Order order) {
-        Map<String, Object> orderData = new HashMap<>();
-        orderData.put("id", order.getId());
-        orderData.put("user_id", order.getUserId());
-        orderData.put("total_price", order.getTotalPrice());
-        orderData.put("shipping_address", order.getShippingAddress());
-        orderData.put("payment_method", order.getPaymentMethod());
-        orderData.put("status", order.getStatus());
-        orderData.put("created_at", order.getCreatedAt());
-
-        List<Map<String, Object>> orderItems = new ArrayList<>();
-        for (OrderItem item : order.getOrderItems()) {
-            Map<String, Object> itemData = new HashMap<>();
-            itemData.put("id", item.getId());
-            itemData.put("product_id", item.getProductId());
-            itemData.put("seller_id", item.getSellerId());
-            itemData.put("quantity", item.getQuantity());
-            itemData.put("price", item.getPrice());
-            itemData.put("image",item.getImage());
-            itemData.put("name",item.getName());
-
-
-
-            orderItems.add(itemData);
+    // Moves many of the seller's orders to one status; all or nothing
+    @PutMapping("/seller/{sellerId}/status")
+    public ResponseEntity<Map<String, Object>> updateSellerOrderStatuses(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long sellerId,
+            @RequestBody BulkStatusRequest request) {
+        if (!user.getId().equals(sellerId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (request.getOrderIds() == null || request.getOrderIds().isEmpty() || request.getOrderIds().contains(null)) {
+            throw new IllegalArgumentException("order_ids must be a non-empty list of order ids");
         }
-        orderData.put("order_items", orderItems);
 
-        return orderData;
+        OrderService.BulkStatusResult result = orderService.updateSellerOrderStatuses(
+                sellerId, request.getOrderIds(), request.getStatus());
+
+        Map<String, Object> response = new HashMap<>();
+        if (!result.applied()) {
+            List<Map<String, Object>> rejected = new ArrayList<>(result.rejected().size());
+            result.rejected().forEach((orderId, status) -> rejected.add(Map.of(
+                    "order_id", orderId,
+                    "status", status.getValue())));
+            response.put("error", "No orders were updated");
+            response.put("not_found", result.notFound());
+            response.put("rejected", rejected);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("message", "Order statuses updated successfully");
+        response.put("updated", result.updated());
+        response.put("new_status", OrderStatus.from(request.getStatus()).getValue());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/seller/{sellerId}/export")
+    public ResponseEntity<StreamingResponseBody> exportSellerSales(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long sellerId,
+            @RequestParam(defaultValue = "json") String format) {
+        if (!user.getId().equals(sellerId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        OrderExportService.Format exportFormat = OrderExportService.Format.from(format);
+
+        StreamingResponseBody body = out -> orderExportService.exportSellerSales(sellerId, exportFormat, out);
+        return exportResponse("seller-" + sellerId + "-sales", exportFormat, body);
+    }
+
+    private String canonicalOrderRequest(String shippingAddress, String paymentMethod,
+                                         List<OrderService.OrderItemRequest> items) {
+        StringBuilder canonical = new StringBuilder()
+                .append(shippingAddress).append('\n')
+                .append(paymentMethod).append('\n');
+        for (OrderService.OrderItemRequest item : items) {
+            canonical.append(item.getProductId()).append(':').append(item.getQuantity()).append(',');
+        }
+        return canonical.toString();
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(
+            String fileName, OrderExportService.Format format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    public static class BulkStatusRequest {
+        @JsonProperty("order_ids")
+        private List<Long> orderIds;
+        private String status;
+
+        public List<Long> getOrderIds() { return orderIds; }
+        public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrentUpdate(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Order was changed by another request, please retry"));
     }
-}
\ No newline at end of file
+}
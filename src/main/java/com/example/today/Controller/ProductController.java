@@ -1,7 +1,12 @@
 package com.example.today.Controller;
 
 import com.example.today.Model.Product;
+import com.example.today.Service.ProductPopularityService;
 import com.example.today.Service.ProductService;
+import com.example.today.dto.CursorPage;
+import com.example.today.dto.PopularProduct;
+import com.example.today.dto.ProductSearchCriteria;
+import com.example.today.dto.ProductSuggestion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,15 +20,74 @@ import java.util.Optional;
 @RequestMapping("/api/products")
 public class ProductController {
     private final ProductService productService;
+    private final ProductPopularityService productPopularityService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductPopularityService productPopularityService) {
         this.productService = productService;
+        this.productPopularityService = productPopularityService;
     }
 
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<Product> page = productService.getProductPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam(name = "category", required = false) List<String> categories,
+            @RequestParam(name = "brand", required = false) List<String> brands,
+            @RequestParam(name = "min_price", required = false) Double minPrice,
+            @RequestParam(name = "max_price", required = false) Double maxPrice,
+            @RequestParam(name = "min_discount", required = false) Integer minDiscount,
+            @RequestParam(name = "min_rating", required = false) Double minRating,
+            @RequestParam(name = "in_stock", defaultValue = "false") boolean inStockOnly,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        try {
+            ProductSearchCriteria criteria = new ProductSearchCriteria(
+                    categories, brands, minPrice, maxPrice, minDiscount, minRating, inStockOnly,
+                    ProductSearchCriteria.SortField.from(sort),
+                    "asc".equalsIgnoreCase(direction),
+                    Math.max(page, 0),
+                    productService.resolvePageSize(size));
+            return ResponseEntity.ok(productService.searchProducts(criteria));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/autocomplete")
+    public List<ProductSuggestion> autocomplete(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return productService.suggestProducts(query, Math.max(1, Math.min(limit, 50)));
+    }
+
+    @GetMapping("/trending")
+    public List<PopularProduct> trending(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "10") int limit) {
+        return productPopularityService.getTrending(category, Math.max(1, Math.min(limit, 50)));
+    }
+
+    @GetMapping("/most-wishlisted")
+    public List<PopularProduct> mostWishlisted(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "10") int limit) {
+        return productPopularityService.getMostWishlisted(category, Math.max(1, Math.min(limit, 50)));
     }
 
     @GetMapping("/{id}")
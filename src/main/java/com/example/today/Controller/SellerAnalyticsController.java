@@ -0,0 +1,58 @@
+package com.example.today.Controller;
+
+import com.example.today.Service.SellerAnalyticsService;
+import com.example.today.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sellers")
+public class SellerAnalyticsController {
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    private final SellerAnalyticsService sellerAnalyticsService;
+
+    @Autowired
+    public SellerAnalyticsController(SellerAnalyticsService sellerAnalyticsService) {
+        this.sellerAnalyticsService = sellerAnalyticsService;
+    }
+
+    @GetMapping("/{sellerId}/analytics")
+    public ResponseEntity<?> getAnalytics(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long sellerId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "10") int top) {
+        if (!user.getId().equals(sellerId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        LocalDate toDate;
+        LocalDate fromDate;
+        try {
+            toDate = to != null ? LocalDate.parse(to) : LocalDate.now(ZoneOffset.UTC);
+            fromDate = from != null ? LocalDate.parse(from) : toDate.minusDays(DEFAULT_DAYS - 1);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Dates must be formatted as yyyy-MM-dd"));
+        }
+        if (fromDate.isAfter(toDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_DAYS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Date range must be between 1 and " + MAX_DAYS + " days"));
+        }
+
+        int topProducts = Math.max(1, Math.min(top, MAX_TOP_PRODUCTS));
+        return ResponseEntity.ok(sellerAnalyticsService.getAnalytics(sellerId, fromDate, toDate, topProducts));
+    }
+}
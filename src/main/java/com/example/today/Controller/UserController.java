@@ -2,14 +2,25 @@ package com.example.today.Controller;
 
 import com.example.today.Model.User;
 import com.example.today.Repository.UserRepository;
+import com.example.today.Service.AvatarStorageService;
+import com.example.today.Service.AvatarStorageService.AvatarTooLargeException;
+import com.example.today.Service.ImageDerivativeService;
+import com.example.today.exception.UserNotFoundException;
+import com.example.today.security.PrincipalCache;
+import com.example.today.security.UserPrincipal;
+import com.example.today.util.FileResponses;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.nio.file.*;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 
@@ -18,20 +29,33 @@ import java.util.Optional;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final AvatarStorageService avatarStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final CacheControl avatarCacheControl;
 
-    @Value("${avatar.upload.dir}") // Configured in application.properties
-    private String uploadDir;
+    private static final CacheControl FALLBACK_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate();
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, PrincipalCache principalCache,
+                          AvatarStorageService avatarStorageService,
+                          ImageDerivativeService imageDerivativeService,
+                          @Value("${app.avatar.cache-max-age:1h}") Duration avatarMaxAge) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.avatarStorageService = avatarStorageService;
+        this.imageDerivativeService = imageDerivativeService;
+        // Avatars sit behind authentication, so shared caches must not keep them
+        this.avatarCacheControl = CacheControl.maxAge(avatarMaxAge).cachePrivate();
     }
 
     // 1. Update Profile
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal principal,
             @RequestBody Map<String, String> updates) {
 
+        User currentUser = loadUser(principal);
+
         updates.forEach((key, value) -> {
             switch (key) {
                 case "name" -> currentUser.setName(value);
@@ -43,6 +67,7 @@ public class UserController {
         });
 
         User updatedUser = userRepository.save(currentUser);
+        principalCache.evict(updatedUser.getEmail());
         return ResponseEntity.ok(Map.of(
                 "success", true,
                 "message", "Profile updated successfully",
@@ -53,40 +78,35 @@ public class UserController {
     // 2. Upload Avatar
     @PostMapping("/avatar")
     public ResponseEntity<?> uploadAvatar(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal principal,
             @RequestParam("avatar") MultipartFile file) {
 
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
         }
-        if (!file.getContentType().startsWith("image/")) {
+        if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
             return ResponseEntity.badRequest().body(Map.of("error", "Only images are allowed"));
         }
 
         try {
-            // Delete old avatar
-            if (currentUser.getAvatar() != null) {
-                Path oldFilePath = Paths.get(uploadDir, extractFileName(currentUser.getAvatar()));
-                Files.deleteIfExists(oldFilePath);
-            }
-
-            // Save new avatar
-            String fileExtension = getFileExtension(file.getOriginalFilename());
-            String fileName = "user_" + currentUser.getId() + fileExtension;
-            Path filePath = Paths.get(uploadDir, fileName);
-            Files.createDirectories(filePath.getParent()); // Ensure directory exists
-            Files.write(filePath, file.getBytes());
+            Path stored = avatarStorageService.store(principal.getId(), file);
 
             // Update user entity
-            String fileUrl = "/static/avatars/" + fileName;
-            currentUser.setAvatar(fileUrl);
-            userRepository.save(currentUser);
+            String fileUrl = "/static/avatars/" + stored.getFileName();
+            User currentUser = loadUser(principal);
+            if (!fileUrl.equals(currentUser.getAvatar())) {
+                currentUser.setAvatar(fileUrl);
+                userRepository.save(currentUser);
+                principalCache.evict(currentUser.getEmail());
+            }
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Avatar uploaded successfully",
                     "avatarUrl", fileUrl
             ));
+        } catch (AvatarTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.internalServerError().body(Map.of("error", "Failed to upload avatar"));
         }
@@ -94,43 +114,30 @@ public class UserController {
 
     // 3. Get Avatar by User ID
     @GetMapping("/{userId}/avatar")
-    public ResponseEntity<byte[]> getAvatar(@PathVariable Long userId) { // ✅ userId is Long
-        Optional<User> userOptional = userRepository.findById(userId); // ✅ Now matches Long ID
-
-        if (userOptional.isEmpty() || userOptional.get().getAvatar() == null) {
-            return ResponseEntity.notFound().build();
-        }
-
-        try {
-            String fileName = extractFileName(userOptional.get().getAvatar());
-            Path filePath = Paths.get(uploadDir, fileName);
-            byte[] imageBytes = Files.readAllBytes(filePath);
-
-            // Determine content type dynamically
-            String extension = getFileExtension(fileName).toLowerCase();
-            MediaType mediaType = switch (extension) {
-                case ".png" -> MediaType.IMAGE_PNG;
-                case ".gif" -> MediaType.IMAGE_GIF;
-                default -> MediaType.IMAGE_JPEG; // Default to JPEG
-            };
-
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .body(imageBytes);
-        } catch (IOException e) {
+    public ResponseEntity<Resource> getAvatar(@PathVariable Long userId,
+                                              @RequestParam(required = false) String size,
+                                              ServletWebRequest webRequest) {
+        ImageDerivativeService.Size requested = ImageDerivativeService.Size.from(size);
+        // The file name is derived from the id, so no user lookup is needed
+        Optional<Path> original = avatarStorageService.find(userId);
+        if (original.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        ImageDerivativeService.Resolved resolved = imageDerivativeService.resolve(original.get(), requested);
+        // A provisional original is replaced once its derivative exists, so it is only briefly cacheable
+        CacheControl cacheControl = resolved.provisional() ? FALLBACK_CACHE_CONTROL : avatarCacheControl;
+        return FileResponses.serve(resolved.path(), cacheControl, webRequest);
     }
 
-    // Helper methods (unchanged)
-    private String extractFileName(String fileUrl) {
-        return fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
     }
 
-    private String getFileExtension(String filename) {
-        if (filename == null || filename.lastIndexOf(".") == -1) {
-            return ".jpg";
-        }
-        return filename.substring(filename.lastIndexOf("."));
+    // Helper methods
+    private User loadUser(UserPrincipal principal) {
+        // The principal may be the cached instance shared by concurrent requests, so never edit it in place
+        return userRepository.findById(principal.getId())
+                .orElseThrow(() -> new UserNotFoundException(principal.getId()));
     }
-}
\ No newline at end of file
+}
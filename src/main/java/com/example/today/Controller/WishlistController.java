@@ -2,20 +2,25 @@ package com.example.today.Controller;
 
 import com.example.today.Model.WishlistItem;
 import com.example.today.Service.WishlistService;
+import com.example.today.dto.WishlistItemResponse;
+import com.example.today.dto.WishlistLine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import com.example.today.Model.User;
+import com.example.today.security.UserPrincipal;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/wishlist")
 public class WishlistController {
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final WishlistService wishlistService;
 
     @Autowired
@@ -25,34 +30,59 @@ public class WishlistController {
 
     // Add to wishlist (requires Content-Type: application/json)
     @PostMapping("/items")
-    public ResponseEntity<Map<String, Object>> addToWishlist(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<WishlistItemResponse> addToWishlist(
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestBody Map<String, Long> request) {
 
         Long productId = request.get("product_id");
         WishlistItem item = wishlistService.addItemToWishlist(user.getId(), String.valueOf(productId));
 
-        return ResponseEntity.ok(buildWishlistItemResponse(item));
+        return ResponseEntity.ok(WishlistItemResponse.of(item));
     }
 
-    // Get wishlist (only requires Authorization header)
+    // Add many products in one request; unknown and duplicate ids are reported, not rejected
+    @PostMapping("/items/bulk")
+    public ResponseEntity<Map<String, Object>> addManyToWishlist(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestBody Map<String, List<String>> request) {
+
+        WishlistService.BulkAddResult result = wishlistService.addItemsToWishlist(
+                user.getId(), requiredProductIds(request));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("added", result.added());
+        response.put("already_present", result.alreadyPresent());
+        response.put("not_found", result.notFound());
+        return ResponseEntity.ok(response);
+    }
+
+    // Get wishlist, newest first (only requires Authorization header)
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getWishlist(
-            @AuthenticationPrincipal User user) {
+    public ResponseEntity<Map<String, Object>> getWishlist(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
 
-        List<WishlistItem> wishlist = wishlistService.getWishlist(user.getId());
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Slice<WishlistLine> lines = wishlistService.getWishlistPage(user.getId(), Math.max(page, 0), pageSize);
 
-        List<Map<String, Object>> response = wishlist.stream()
-                .map(this::buildWishlistItemResponse)
-                .collect(Collectors.toList());
+        List<WishlistItemResponse> items = new ArrayList<>(lines.getNumberOfElements());
+        for (WishlistLine line : lines) {
+            items.add(WishlistItemResponse.of(line));
+        }
 
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", items);
+        response.put("page", lines.getNumber());
+        response.put("size", pageSize);
+        response.put("has_next", lines.hasNext());
         return ResponseEntity.ok(response);
     }
 
     // Remove from wishlist (only requires Authorization header)
     @DeleteMapping("/items/{product_id}")
     public ResponseEntity<Map<String, Object>> removeFromWishlist(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable("product_id") Long productId) {
 
         wishlistService.removeItemFromWishlist(user.getId(), productId);
@@ -64,28 +94,43 @@ public class WishlistController {
         return ResponseEntity.ok(response);
     }
 
-    // Response builder method
-    private Map<String, Object> buildWishlistItemResponse(WishlistItem item) {
+    // Which of the given products are wishlisted, answered from memory
+    @GetMapping("/membership")
+    public ResponseEntity<Map<String, Object>> getMembership(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam("product_ids") List<String> productIds) {
+
         Map<String, Object> response = new HashMap<>();
-        response.put("id", item.getId());
-        response.put("user_id", item.getUserId());
-        response.put("product_id", item.getProduct().getId());
-        response.put("created_at", item.getCreatedAt());
-
-        // Build product details
-        Map<String, Object> productDetails = new HashMap<>();
-        productDetails.put("id", item.getProduct().getId());
-        productDetails.put("name", item.getProduct().getName());
-        productDetails.put("description", item.getProduct().getDescription());
-        productDetails.put("price", item.getProduct().getPrice());
-        productDetails.put("discount", item.getProduct().getDiscount());
-        productDetails.put("image", item.getProduct().getImage());
-        productDetails.put("category", item.getProduct().getCategory());
-        productDetails.put("brand", item.getProduct().getBrand());
-        productDetails.put("rating", item.getProduct().getRating());
-        productDetails.put("stock", item.getProduct().getStock());
-
-        response.put("product", productDetails);
-        return response;
+        response.put("wishlisted", wishlistService.getWishlistedProductIds(user.getId(), productIds));
+        return ResponseEntity.ok(response);
+    }
+
+    // Remove many products in one request
+    @PostMapping("/items/bulk-remove")
+    public ResponseEntity<Map<String, Object>> removeManyFromWishlist(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestBody Map<String, List<String>> request) {
+
+        int removed = wishlistService.removeItemsFromWishlist(user.getId(), requiredProductIds(request));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Products removed from wishlist successfully");
+        response.put("removed", removed);
+        return ResponseEntity.ok(response);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    private static List<String> requiredProductIds(Map<String, List<String>> request) {
+        List<String> productIds = request.get("product_ids");
+        if (productIds == null || productIds.stream().anyMatch(id -> id == null || id.isBlank())) {
+            throw new IllegalArgumentException("product_ids must be a list of product ids");
+        }
+        return productIds;
     }
-}
\ No newline at end of file
+}
@@ -24,6 +24,10 @@ public class CartItem {
     private int quantity;
     private String selectedColor;
 
+    // Product price when the item was added; validation compares against it
+    @Column(name = "unit_price")
+    private Double unitPrice;
+
     @CreationTimestamp
     private Instant addedAt;
 
@@ -46,6 +50,9 @@ public class CartItem {
     public String getSelectedColor() { return selectedColor; }
     public void setSelectedColor(String selectedColor) { this.selectedColor = selectedColor; }
 
+    public Double getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(Double unitPrice) { this.unitPrice = unitPrice; }
+
     public Instant getAddedAt() { return addedAt; }
     public void setAddedAt(Instant addedAt) { this.addedAt = addedAt; }
 
@@ -2,15 +2,25 @@ package com.example.today.Model;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLockType;
+import org.hibernate.annotations.OptimisticLocking;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+// Updates only write changed columns and require them to still hold the values
+// that were read, so two concurrent status changes cannot both apply
 @Entity
-@Table(name = "orders")
+@DynamicUpdate
+@OptimisticLocking(type = OptimisticLockType.DIRTY)
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id_created_at_id", columnList = "user_id, created_at, id")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -25,8 +35,9 @@ public class Order {
     @Column(name = "payment_method", nullable = false)
     private String paymentMethod;
 
+    @Convert(converter = OrderStatusConverter.class)
     @Column(name = "status", nullable = false)
-    private String status = "pending";
+    private OrderStatus status = OrderStatus.PENDING;
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -46,8 +57,8 @@ public class Order {
     public void setShippingAddress(String shippingAddress) { this.shippingAddress = shippingAddress; }
     public String getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public List<OrderItem> getOrderItems() { return orderItems; }
@@ -0,0 +1,36 @@
+package com.example.today.Model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Lifecycle of an order. Stored and serialized as the lowercase value, which
+ * matches the strings used before the enum existed.
+ */
+public enum OrderStatus {
+    PENDING, SOLD, SHIPPED, DELIVERED, CANCELLED;
+
+    private final String value = name().toLowerCase(Locale.ROOT);
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public static OrderStatus from(String value) {
+        if (value != null) {
+            for (OrderStatus status : values()) {
+                if (status.value.equalsIgnoreCase(value.trim())) {
+                    return status;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status: " + value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.today.Model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.getValue();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(String value) {
+        return value == null ? null : OrderStatus.from(value);
+    }
+}
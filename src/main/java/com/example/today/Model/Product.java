@@ -6,7 +6,13 @@ import java.time.Instant;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_category_price", columnList = "category, price"),
+        @Index(name = "idx_products_category_rating", columnList = "category, rating"),
+        @Index(name = "idx_products_brand_price", columnList = "brand, price"),
+        @Index(name = "idx_products_price", columnList = "price")
+})
 public class Product {
     @Id
     private String id;
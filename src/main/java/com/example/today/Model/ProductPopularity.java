@@ -0,0 +1,46 @@
+package com.example.today.Model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Flushed popularity counters of a product: current number of wishlist
+ * entries, units ordered (excluding cancelled orders) and a trending score
+ * that decays over time, valid as of {@code trendingAt}. Maintained by
+ * {@link com.example.today.Service.ProductPopularityService}.
+ */
+@Entity
+@Table(name = "product_popularity")
+public class ProductPopularity {
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    private String category;
+
+    @Column(name = "wishlist_count", nullable = false)
+    private long wishlistCount;
+
+    @Column(name = "order_units", nullable = false)
+    private long orderUnits;
+
+    @Column(name = "trending_score", nullable = false)
+    private double trendingScore;
+
+    @Column(name = "trending_at", nullable = false)
+    private Instant trendingAt;
+
+    public String getProductId() { return productId; }
+    public void setProductId(String productId) { this.productId = productId; }
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    public long getWishlistCount() { return wishlistCount; }
+    public void setWishlistCount(long wishlistCount) { this.wishlistCount = wishlistCount; }
+    public long getOrderUnits() { return orderUnits; }
+    public void setOrderUnits(long orderUnits) { this.orderUnits = orderUnits; }
+    public double getTrendingScore() { return trendingScore; }
+    public void setTrendingScore(double trendingScore) { this.trendingScore = trendingScore; }
+    public Instant getTrendingAt() { return trendingAt; }
+    public void setTrendingAt(Instant trendingAt) { this.trendingAt = trendingAt; }
+}
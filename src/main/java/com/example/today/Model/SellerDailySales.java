@@ -0,0 +1,70 @@
+package com.example.today.Model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Sales of a seller per order day (UTC). {@code orderCount} counts the
+ * non-cancelled orders of that day containing at least one of the seller's
+ * products.
+ */
+@Entity
+@Table(name = "seller_daily_sales")
+@IdClass(SellerDailySales.Key.class)
+public class SellerDailySales {
+    @Id
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private double revenue;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    public Long getSellerId() { return sellerId; }
+    public void setSellerId(Long sellerId) { this.sellerId = sellerId; }
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+    public long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(long unitsSold) { this.unitsSold = unitsSold; }
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+
+    public static class Key implements Serializable {
+        private Long sellerId;
+        private LocalDate salesDate;
+
+        public Key() {
+        }
+
+        public Key(Long sellerId, LocalDate salesDate) {
+            this.sellerId = sellerId;
+            this.salesDate = salesDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(sellerId, key.sellerId) && Objects.equals(salesDate, key.salesDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sellerId, salesDate);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.today.Model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity
+@Table(name = "seller_product_sales", indexes = {
+        @Index(name = "idx_seller_product_sales_revenue", columnList = "seller_id, revenue")
+})
+@IdClass(SellerProductSales.Key.class)
+public class SellerProductSales {
+    @Id
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private double revenue;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    public Long getSellerId() { return sellerId; }
+    public void setSellerId(Long sellerId) { this.sellerId = sellerId; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+    public long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(long unitsSold) { this.unitsSold = unitsSold; }
+
+    public static class Key implements Serializable {
+        private Long sellerId;
+        private Long productId;
+
+        public Key() {
+        }
+
+        public Key(Long sellerId, Long productId) {
+            this.sellerId = sellerId;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(sellerId, key.sellerId) && Objects.equals(productId, key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sellerId, productId);
+        }
+    }
+}
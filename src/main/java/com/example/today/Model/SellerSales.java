@@ -0,0 +1,28 @@
+package com.example.today.Model;
+
+import jakarta.persistence.*;
+
+/**
+ * Running sales totals of a seller over all orders that are not cancelled.
+ * Maintained by {@link com.example.today.Service.SellerAnalyticsService}.
+ */
+@Entity
+@Table(name = "seller_sales")
+public class SellerSales {
+    @Id
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    @Column(nullable = false)
+    private double revenue;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    public Long getSellerId() { return sellerId; }
+    public void setSellerId(Long sellerId) { this.sellerId = sellerId; }
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+    public long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(long unitsSold) { this.unitsSold = unitsSold; }
+}
@@ -0,0 +1,56 @@
+package com.example.today.Model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Number of orders containing a seller's products, per order status.
+ */
+@Entity
+@Table(name = "seller_status_counts")
+@IdClass(SellerStatusCount.Key.class)
+public class SellerStatusCount {
+    @Id
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    @Id
+    private String status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    public Long getSellerId() { return sellerId; }
+    public void setSellerId(Long sellerId) { this.sellerId = sellerId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+
+    public static class Key implements Serializable {
+        private Long sellerId;
+        private String status;
+
+        public Key() {
+        }
+
+        public Key(Long sellerId, String status) {
+            this.sellerId = sellerId;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(sellerId, key.sellerId) && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sellerId, status);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.today.Model;
 
+import com.example.today.security.UserPrincipal;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -16,7 +17,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
-public class User implements UserDetails {
+public class User implements UserDetails, UserPrincipal {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
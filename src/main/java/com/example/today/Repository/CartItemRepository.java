@@ -3,12 +3,28 @@ package com.example.today.Repository;
 import com.example.today.Model.Cart;
 import com.example.today.Model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 import java.util.Optional;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByCart(Cart cart);
     Optional<CartItem> findByIdAndCartId(Long id, Long cartId);
-    void deleteByCartId(Long cartId);
     int countByCartId(Long cartId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("delete from CartItem ci where ci.cart.id = :cartId")
+    int deleteAllByCartId(@Param("cartId") Long cartId);
+
+    @Query("select distinct ci.cart.id from CartItem ci where ci.unitPrice is null")
+    List<Long> findCartIdsWithoutUnitPrice();
+
+    // Items saved before unit_price existed take the current product price
+    @Modifying
+    @Query("update CartItem ci set ci.unitPrice = (select p.price from Product p where p = ci.product) "
+            + "where ci.unitPrice is null")
+    int backfillUnitPrices();
+}
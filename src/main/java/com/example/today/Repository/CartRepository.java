@@ -2,8 +2,24 @@ package com.example.today.Repository;
 
 import com.example.today.Model.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Cart, items and their products in one round trip
+    @Query("select c from Cart c left join fetch c.items i left join fetch i.product where c.userId = :userId")
+    Optional<Cart> findWithItemsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Cart c set "
+            + "c.totalItems = (select coalesce(sum(ci.quantity), 0) from CartItem ci where ci.cart = c), "
+            + "c.subtotal = (select coalesce(round(sum(ci.unitPrice * ci.quantity), 2), 0.0) from CartItem ci where ci.cart = c) "
+            + "where c.id in :cartIds")
+    int recomputeTotals(@Param("cartIds") Collection<Long> cartIds);
+}
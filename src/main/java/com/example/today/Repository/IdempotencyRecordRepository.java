@@ -0,0 +1,34 @@
+package com.example.today.Repository;
+
+import com.example.today.Model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Takes over an in-progress record whose owner never finished, e.g. after
+     * a crash. Only one caller can win, because the lease start must still
+     * match.
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.createdAt = :now " +
+            "where r.id = :id and r.status = 'in_progress' and r.createdAt = :leaseStart")
+    int takeOver(@Param("id") Long id, @Param("leaseStart") Instant leaseStart, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.status = 'in_progress'")
+    int deleteInProgress(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -1,9 +1,40 @@
 package com.example.today.Repository;
 
 import com.example.today.Model.OrderItem;
+import com.example.today.dto.SellerOrderLine;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findBySellerId(Long sellerId);
-}
\ No newline at end of file
+
+    String SELLER_FEED_QUERY = "select new com.example.today.dto.SellerOrderLine(" +
+            "o.id, o.status, oi.productId, oi.quantity, oi.price, o.createdAt, " +
+            "coalesce(p.name, oi.name), coalesce(p.image, oi.Image), o.shippingAddress) " +
+            "from OrderItem oi join oi.order o " +
+            "left join Product p on p.id = cast(oi.productId as String) " +
+            "where oi.sellerId = :sellerId ";
+
+    @Query(SELLER_FEED_QUERY + "order by o.createdAt desc, oi.id desc")
+    Slice<SellerOrderLine> findSellerFeedNewestFirst(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    @Query(SELLER_FEED_QUERY + "order by o.createdAt asc, oi.id asc")
+    Slice<SellerOrderLine> findSellerFeedOldestFirst(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    @Query(SELLER_FEED_QUERY + "order by o.createdAt desc, oi.id desc")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<SellerOrderLine> streamSellerFeed(@Param("sellerId") Long sellerId);
+}
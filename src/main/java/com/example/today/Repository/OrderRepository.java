@@ -1,9 +1,52 @@
 package com.example.today.Repository;
 
 import com.example.today.Model.Order;
+import com.example.today.dto.OrderExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
-}
\ No newline at end of file
+    // Order history pages: ids are picked by keyset first, then loaded with their lines in one query
+    @Query("select o.id from Order o where o.userId = :userId order by o.createdAt desc, o.id desc")
+    List<Long> findHistoryFirstPageIds(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select o.id from Order o " +
+            "where o.userId = :userId " +
+            "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) " +
+            "order by o.createdAt desc, o.id desc")
+    List<Long> findHistoryPageIdsAfter(@Param("userId") Long userId,
+                                       @Param("createdAt") Instant createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Query("select o from Order o left join fetch o.orderItems " +
+            "where o.id in :ids " +
+            "order by o.createdAt desc, o.id desc")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * One row per order line (or one row with null line fields for an order
+     * without lines), ordered so that the lines of an order are adjacent.
+     */
+    @Query("select new com.example.today.dto.OrderExportRow(" +
+            "o.id, o.userId, o.totalPrice, o.shippingAddress, o.paymentMethod, o.status, o.createdAt, " +
+            "oi.id, oi.productId, oi.sellerId, oi.quantity, oi.price, oi.Image, oi.name) " +
+            "from Order o left join o.orderItems oi " +
+            "where o.userId = :userId " +
+            "order by o.createdAt desc, o.id desc, oi.id asc")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OrderExportRow> streamExportRowsByUserId(@Param("userId") Long userId);
+}
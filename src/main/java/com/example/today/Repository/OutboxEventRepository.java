@@ -0,0 +1,37 @@
+package com.example.today.Repository;
+
+import com.example.today.Model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Marks the event as processed unless another dispatcher already did. The
+     * row stays locked until the caller's transaction ends, so a rollback
+     * hands the event back to the poller.
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.processedAt = :now where e.id = :id and e.processedAt is null")
+    int claim(@Param("id") Long id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.lastError = :error where e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+
+    @Query("select e.id from OutboxEvent e where e.processedAt is null and e.attempts < :maxAttempts order by e.id")
+    List<Long> findPendingIds(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,7 @@
+package com.example.today.Repository;
+
+import com.example.today.Model.ProductPopularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProductPopularityRepository extends JpaRepository<ProductPopularity, String> {
+}
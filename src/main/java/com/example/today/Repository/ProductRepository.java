@@ -1,9 +1,42 @@
 package com.example.today.Repository;
 
 import com.example.today.Model.Product;
+import com.example.today.dto.ProductAvailability;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, String> {
-}
\ No newline at end of file
+public interface ProductRepository extends JpaRepository<Product, String>, ProductSearchRepository {
+
+    // Keyset pages ordered newest first; undated (legacy) products come first,
+    // matching a backward scan of the (created_at, id) index.
+    @Query("select p from Product p order by p.createdAt desc nulls first, p.id desc")
+    List<Product> findFirstPage(Pageable pageable);
+
+    @Query("select p from Product p " +
+            "where (p.createdAt is null and p.id < :id) or p.createdAt is not null " +
+            "order by p.createdAt desc nulls first, p.id desc")
+    List<Product> findPageAfterUndated(@Param("id") String id, Pageable pageable);
+
+    @Query("select p from Product p " +
+            "where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id) " +
+            "order by p.createdAt desc, p.id desc")
+    List<Product> findPageAfter(@Param("createdAt") Instant createdAt,
+                                @Param("id") String id,
+                                Pageable pageable);
+
+    @Query("select p.id from Product p where p.id in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    // Scalar projection: always reads the current row, never a cached entity
+    @Query("select new com.example.today.dto.ProductAvailability(p.id, p.stock, p.price) " +
+            "from Product p where p.id in :ids")
+    List<ProductAvailability> findAvailability(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,8 @@
+package com.example.today.Repository;
+
+import com.example.today.dto.ProductSearchCriteria;
+import com.example.today.dto.ProductSearchResult;
+
+public interface ProductSearchRepository {
+    ProductSearchResult search(ProductSearchCriteria criteria);
+}
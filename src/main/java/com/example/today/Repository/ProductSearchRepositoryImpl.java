@@ -0,0 +1,118 @@
+package com.example.today.Repository;
+
+import com.example.today.Model.Product;
+import com.example.today.dto.FacetCount;
+import com.example.today.dto.ProductSearchCriteria;
+import com.example.today.dto.ProductSearchResult;
+import com.example.today.dto.ProductSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria-based product search. Results are projected straight into
+ * {@link ProductSummary} so no entity or element collection is loaded.
+ * Facet counts ignore their own dimension's filter, so selecting a brand
+ * still reports how many products the other brands would match.
+ */
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final int MAX_FACET_VALUES = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public ProductSearchResult search(ProductSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(cb.construct(ProductSummary.class,
+                product.get("id"),
+                product.get("name"),
+                product.get("price"),
+                product.get("discount"),
+                product.get("image"),
+                product.get("category"),
+                product.get("brand"),
+                product.get("rating"),
+                product.get("reviews"),
+                product.get("stock")));
+        query.where(filters(cb, product, criteria, null));
+
+        Path<?> sortPath = product.get(criteria.sort().getAttribute());
+        query.orderBy(
+                criteria.ascending() ? cb.asc(sortPath) : cb.desc(sortPath),
+                criteria.ascending() ? cb.asc(product.get("id")) : cb.desc(product.get("id")));
+
+        List<ProductSummary> items = entityManager.createQuery(query)
+                .setFirstResult(criteria.offset())
+                .setMaxResults(criteria.size())
+                .getResultList();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Product> countRoot = countQuery.from(Product.class);
+        countQuery.select(cb.count(countRoot)).where(filters(cb, countRoot, criteria, null));
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facets.put("category", facet(cb, criteria, "category"));
+        facets.put("brand", facet(cb, criteria, "brand"));
+
+        return new ProductSearchResult(items, criteria.page(), criteria.size(), total, facets);
+    }
+
+    private List<FacetCount> facet(CriteriaBuilder cb, ProductSearchCriteria criteria, String attribute) {
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Product> product = query.from(Product.class);
+        Path<String> value = product.get(attribute);
+        Expression<Long> count = cb.count(product);
+        query.multiselect(value, count)
+                .where(cb.and(cb.and(filters(cb, product, criteria, attribute)), cb.isNotNull(value)))
+                .groupBy(value)
+                .orderBy(cb.desc(count), cb.asc(value));
+
+        List<FacetCount> facetCounts = new ArrayList<>();
+        for (Object[] row : entityManager.createQuery(query).setMaxResults(MAX_FACET_VALUES).getResultList()) {
+            facetCounts.add(new FacetCount((String) row[0], (Long) row[1]));
+        }
+        return facetCounts;
+    }
+
+    private Predicate[] filters(CriteriaBuilder cb, Root<Product> product,
+                                ProductSearchCriteria criteria, String excludedFacet) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (!"category".equals(excludedFacet) && !isEmpty(criteria.categories())) {
+            predicates.add(product.get("category").in(criteria.categories()));
+        }
+        if (!"brand".equals(excludedFacet) && !isEmpty(criteria.brands())) {
+            predicates.add(product.get("brand").in(criteria.brands()));
+        }
+        if (criteria.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.<Double>get("price"), criteria.minPrice()));
+        }
+        if (criteria.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.<Double>get("price"), criteria.maxPrice()));
+        }
+        if (criteria.minDiscount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.<Integer>get("discount"), criteria.minDiscount()));
+        }
+        if (criteria.minRating() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.<Double>get("rating"), criteria.minRating()));
+        }
+        if (criteria.inStockOnly()) {
+            predicates.add(cb.greaterThan(product.<Integer>get("stock"), 0));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static boolean isEmpty(List<String> values) {
+        return values == null || values.isEmpty();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.today.Repository;
+
+import com.example.today.Model.SellerDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SellerDailySalesRepository extends JpaRepository<SellerDailySales, SellerDailySales.Key> {
+    List<SellerDailySales> findBySellerIdAndSalesDateBetweenOrderBySalesDateAsc(
+            Long sellerId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,11 @@
+package com.example.today.Repository;
+
+import com.example.today.Model.SellerProductSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SellerProductSalesRepository extends JpaRepository<SellerProductSales, SellerProductSales.Key> {
+    List<SellerProductSales> findBySellerIdOrderByRevenueDesc(Long sellerId, Pageable pageable);
+}
@@ -0,0 +1,7 @@
+package com.example.today.Repository;
+
+import com.example.today.Model.SellerSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SellerSalesRepository extends JpaRepository<SellerSales, Long> {
+}
@@ -0,0 +1,10 @@
+package com.example.today.Repository;
+
+import com.example.today.Model.SellerStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SellerStatusCountRepository extends JpaRepository<SellerStatusCount, SellerStatusCount.Key> {
+    List<SellerStatusCount> findBySellerId(Long sellerId);
+}
@@ -1,13 +1,39 @@
 package com.example.today.Repository;
 
 import com.example.today.Model.WishlistItem;
+import com.example.today.dto.WishlistLine;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface WishlistRepository extends JpaRepository<WishlistItem, Long> {
-    List<WishlistItem> findByUserId(Long userId);
     Optional<WishlistItem> findByUserIdAndProductId(Long userId, String productId);
-    void deleteByUserIdAndProductId(Long userId, String productId);
-}
\ No newline at end of file
+    long deleteByUserIdAndProductId(Long userId, String productId);
+
+    @Query("select new com.example.today.dto.WishlistLine(" +
+            "w.id, w.userId, w.createdAt, p.id, p.name, p.description, p.price, p.discount, " +
+            "p.image, p.category, p.brand, p.rating, p.stock) " +
+            "from WishlistItem w join w.product p " +
+            "where w.userId = :userId " +
+            "order by w.createdAt desc, w.id desc")
+    Slice<WishlistLine> findLinesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select w.product.id from WishlistItem w where w.userId = :userId")
+    List<String> findProductIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select w.product.id from WishlistItem w where w.userId = :userId and w.product.id in :productIds")
+    List<String> findProductIdsByUserIdAndProductIdIn(@Param("userId") Long userId,
+                                                      @Param("productIds") Collection<String> productIds);
+
+    @Modifying
+    @Query("delete from WishlistItem w where w.userId = :userId and w.product.id in :productIds")
+    int deleteByUserIdAndProductIdIn(@Param("userId") Long userId,
+                                     @Param("productIds") Collection<String> productIds);
+}
@@ -0,0 +1,127 @@
+package com.example.today.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Avatar files on local disk, named {@code user_<id>.<ext>} so they can be
+ * found from the user id alone. Uploads are streamed to a temporary file in
+ * the same directory and then moved into place atomically, so readers never
+ * see a partially written avatar and the upload is never held in memory.
+ */
+@Service
+public class AvatarStorageService {
+
+    private static final Map<String, MediaType> EXTENSIONS = new LinkedHashMap<>();
+
+    static {
+        EXTENSIONS.put(".png", MediaType.IMAGE_PNG);
+        EXTENSIONS.put(".jpg", MediaType.IMAGE_JPEG);
+        EXTENSIONS.put(".jpeg", MediaType.IMAGE_JPEG);
+        EXTENSIONS.put(".gif", MediaType.IMAGE_GIF);
+        EXTENSIONS.put(".webp", MediaType.parseMediaType("image/webp"));
+    }
+
+    private static final long TRANSFER_CHUNK = 64 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ImageDerivativeService imageDerivativeService;
+
+    public AvatarStorageService(@Value("${avatar.upload.dir}") String uploadDir,
+                                @Value("${app.avatar.max-bytes:2097152}") long maxBytes,
+                                ImageDerivativeService imageDerivativeService) {
+        this.directory = Paths.get(uploadDir);
+        this.maxBytes = maxBytes;
+        this.imageDerivativeService = imageDerivativeService;
+    }
+
+    public Path store(Long userId, MultipartFile file) throws IOException {
+        String extension = extensionFor(file.getOriginalFilename(), file.getContentType());
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "upload_", ".tmp");
+        try {
+            try (InputStream in = file.getInputStream();
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long written = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, written, TRANSFER_CHUNK)) > 0) {
+                    written += transferred;
+                    if (written > maxBytes) {
+                        throw new AvatarTooLargeException(maxBytes);
+                    }
+                }
+            }
+
+            Path destination = directory.resolve(fileName(userId, extension));
+            try {
+                Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // A previous avatar may have had another extension
+            for (String other : EXTENSIONS.keySet()) {
+                if (!other.equals(extension)) {
+                    Files.deleteIfExists(directory.resolve(fileName(userId, other)));
+                }
+            }
+            // Thumbnails share one name per user whatever the extension
+            imageDerivativeService.deleteDerivatives(destination);
+            imageDerivativeService.generateAsync(destination);
+            return destination;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Optional<Path> find(Long userId) {
+        for (String extension : EXTENSIONS.keySet()) {
+            Path path = directory.resolve(fileName(userId, extension));
+            if (Files.isRegularFile(path)) {
+                return Optional.of(path);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static String fileName(Long userId, String extension) {
+        return "user_" + userId + extension;
+    }
+
+    private String extensionFor(String originalFilename, String contentType) {
+        if (originalFilename != null && originalFilename.lastIndexOf('.') >= 0) {
+            String extension = originalFilename.substring(originalFilename.lastIndexOf('.')).toLowerCase(Locale.ROOT);
+            if (EXTENSIONS.containsKey(extension)) {
+                return extension;
+            }
+        }
+        if (contentType != null) {
+            for (Map.Entry<String, MediaType> entry : EXTENSIONS.entrySet()) {
+                if (entry.getValue().toString().equalsIgnoreCase(contentType)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return ".jpg";
+    }
+
+    public static class AvatarTooLargeException extends IOException {
+        public AvatarTooLargeException(long maxBytes) {
+            super("Avatar exceeds " + maxBytes + " bytes");
+        }
+    }
+}
@@ -2,32 +2,47 @@ package com.example.today.Service;
 
 import com.example.today.Model.*;
 import com.example.today.Repository.*;
+import com.example.today.dto.ProductAvailability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class CartService {
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final TransactionTemplate transaction;
 
     @Autowired
     public CartService(CartRepository cartRepository,
                        CartItemRepository cartItemRepository,
-                       ProductRepository productRepository) {
+                       ProductRepository productRepository,
+                       ProductCache productCache,
+                       PlatformTransactionManager transactionManager) {
         this.cartRepository = cartRepository;
         this.cartItemRepository = cartItemRepository;
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     @Transactional(readOnly = true)
     public Cart getCartByUserId(Long userId) {
-        return cartRepository.findByUserId(userId)
+        return cartRepository.findWithItemsByUserId(userId)
                 .orElseGet(() -> createNewCart(userId));
     }
 
@@ -41,17 +56,20 @@ public class CartService {
 
     @Transactional
     public Cart addItemToCart(Long userId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("Invalid quantity");
+        }
+
         Cart cart = getCartByUserId(userId);
-        Product product = productRepository.findById(String.valueOf(productId))
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        ProductCache.CachedProduct product = productCache.getRequired(String.valueOf(productId));
 
-        if (product.getStock() < quantity) {
+        if (product.stock() < quantity) {
             throw new RuntimeException("Insufficient stock");
         }
 
         // Check if item already exists
         Optional<CartItem> existingItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
+                .filter(item -> item.getProduct().getId().equals(product.id()))
                 .findFirst();
 
         if (existingItem.isPresent()) {
@@ -60,13 +78,14 @@ public class CartService {
             // Create new item
             CartItem newItem = new CartItem();
             newItem.setCart(cart);
-            newItem.setProduct(product);
+            newItem.setProduct(productRepository.getReferenceById(product.id()));
             newItem.setQuantity(quantity);
+            newItem.setUnitPrice(product.price());
             cart.getItems().add(newItem);
             cartItemRepository.save(newItem);
         }
 
-        updateCartTotals(cart);
+        applyTotalsDelta(cart, quantity, product.price() * quantity);
         return cart;
     }
 
@@ -77,65 +96,101 @@ public class CartService {
         }
 
         Cart cart = getCartByUserId(userId);
-        CartItem item = cartItemRepository.findByIdAndCartId(cartItemId, cart.getId())
-                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+        CartItem item = findItem(cart, cartItemId);
 
         if (item.getProduct().getStock() < quantity) {
             throw new RuntimeException("Insufficient stock");
         }
 
+        // Updating an item re-prices it at the current price, which also clears price_changed
+        double currentPrice = item.getProduct().getPrice();
+        int quantityDelta = quantity - item.getQuantity();
+        double subtotalDelta = currentPrice * quantity - unitPrice(item) * item.getQuantity();
         item.setQuantity(quantity);
-        cartItemRepository.save(item);
-        updateCartTotals(cart);
+        item.setUnitPrice(currentPrice);
+        applyTotalsDelta(cart, quantityDelta, subtotalDelta);
         return cart;
     }
 
     @Transactional
     public Cart removeCartItem(Long userId, Long cartItemId) {
         Cart cart = getCartByUserId(userId);
-        CartItem item = cartItemRepository.findByIdAndCartId(cartItemId, cart.getId())
-                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+        CartItem item = findItem(cart, cartItemId);
 
         cart.getItems().remove(item);
         cartItemRepository.delete(item);
-        updateCartTotals(cart);
+        applyTotalsDelta(cart, -item.getQuantity(), -unitPrice(item) * item.getQuantity());
         return cart;
     }
 
+    @Transactional(readOnly = true)
     public CartItem getCartItemById(Long cartItemId, Long userId) {
-        Cart cart = getCartByUserId(userId);
-        return cartItemRepository.findByIdAndCartId(cartItemId, cart.getId())
-                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+        return findItem(getCartByUserId(userId), cartItemId);
     }
 
     @Transactional
     public Cart clearCart(Long userId) {
-        Cart cart = getCartByUserId(userId);
-        cartItemRepository.deleteByCartId(cart.getId());
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseGet(() -> createNewCart(userId));
+        cartItemRepository.deleteAllByCartId(cart.getId());
         cart.getItems().clear();
         cart.setTotalItems(0);
         cart.setSubtotal(0.0);
-        cartRepository.save(cart);
         return cart;
     }
 
+    /**
+     * Snapshots the current price on items saved before unit_price existed
+     * and recomputes the totals of their carts, so no cart keeps mixing live
+     * and snapshot prices.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillUnitPrices() {
+        // The transaction sits inside the try, so a failure rolls it back and is only logged
+        try {
+            transaction.executeWithoutResult(status -> {
+                List<Long> cartIds = cartItemRepository.findCartIdsWithoutUnitPrice();
+                if (cartIds.isEmpty()) {
+                    return;
+                }
+                int items = cartItemRepository.backfillUnitPrices();
+                cartRepository.recomputeTotals(cartIds);
+                logger.info("Backfilled unit prices of {} cart items in {} carts", items, cartIds.size());
+            });
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Could not backfill cart item unit prices", e);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public CartValidationResult validateCart(Long userId) {
         Cart cart = getCartByUserId(userId);
         CartValidationResult result = new CartValidationResult();
         result.setValid(true);
         result.setIssues(new ArrayList<>());
+        if (cart.getItems().isEmpty()) {
+            return result;
+        }
 
+        Set<String> productIds = new HashSet<>();
         for (CartItem item : cart.getItems()) {
-            Product product = productRepository.findById(item.getProduct().getId())
-                    .orElse(null);
+            productIds.add(item.getProduct().getId());
+        }
+        Map<String, ProductAvailability> availability = new HashMap<>();
+        for (ProductAvailability current : productRepository.findAvailability(productIds)) {
+            availability.put(current.productId(), current);
+        }
+
+        for (CartItem item : cart.getItems()) {
+            ProductAvailability product = availability.get(item.getProduct().getId());
 
             if (product == null) {
                 result.addIssue(new CartIssue("out_of_stock", "Product no longer available", item));
                 result.setValid(false);
-            } else if (product.getStock() < item.getQuantity()) {
+            } else if (product.stock() == null || product.stock() < item.getQuantity()) {
                 result.addIssue(new CartIssue("insufficient_stock", "Not enough stock available", item));
                 result.setValid(false);
-            } else if (!product.getPrice().equals(item.getProduct().getPrice())) {
+            } else if (item.getUnitPrice() != null && !item.getUnitPrice().equals(product.price())) {
                 result.addIssue(new CartIssue("price_changed", "Product price has changed", item));
                 result.setValid(false);
             }
@@ -144,18 +199,26 @@ public class CartService {
         return result;
     }
 
-    private void updateCartTotals(Cart cart) {
-        int totalItems = 0;
-        double subtotal = 0.0;
+    private CartItem findItem(Cart cart, Long cartItemId) {
+        return cart.getItems().stream()
+                .filter(item -> item.getId().equals(cartItemId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+    }
 
-        for (CartItem item : cart.getItems()) {
-            totalItems += item.getQuantity();
-            subtotal += item.getProduct().getPrice() * item.getQuantity();
-        }
+    private double unitPrice(CartItem item) {
+        // Only items saved before price snapshots existed and not yet backfilled lack one
+        return item.getUnitPrice() != null ? item.getUnitPrice() : item.getProduct().getPrice();
+    }
 
-        cart.setTotalItems(totalItems);
-        cart.setSubtotal(subtotal);
-        cartRepository.save(cart);
+    /**
+     * Adjusts the stored totals by one mutation instead of re-walking every
+     * item; the cart is managed, so the change is flushed on commit.
+     */
+    private void applyTotalsDelta(Cart cart, int quantityDelta, double subtotalDelta) {
+        cart.setTotalItems(cart.getTotalItems() + quantityDelta);
+        // Round to cents so repeated deltas do not accumulate floating-point drift
+        cart.setSubtotal(Math.round((cart.getSubtotal() + subtotalDelta) * 100.0) / 100.0);
     }
 
     public static class CartValidationResult {
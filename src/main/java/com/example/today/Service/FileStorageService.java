@@ -5,18 +5,27 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class FileStorageService {
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "webp");
+
     private final Path uploadDir;
+    private final ImageDerivativeService imageDerivativeService;
 
-    public FileStorageService(@Value("${UPLOAD_DIR:uploads}") String uploadDir) {
+    public FileStorageService(@Value("${UPLOAD_DIR:uploads}") String uploadDir,
+                              ImageDerivativeService imageDerivativeService) {
         this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.imageDerivativeService = imageDerivativeService;
         try {
             Files.createDirectories(this.uploadDir);
         } catch (IOException ex) {
@@ -28,6 +37,30 @@ public class FileStorageService {
         String fileName = UUID.randomUUID() + "." + extension;
         Path targetLocation = this.uploadDir.resolve(fileName);
         Files.write(targetLocation, fileData);
+        imageDerivativeService.generateAsync(targetLocation);
+        return fileName;
+    }
+
+    public String storeImage(MultipartFile file) throws IOException {
+        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+        if (extension == null || !IMAGE_EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Unsupported image type");
+        }
+        String fileName = UUID.randomUUID() + "." + extension.toLowerCase(Locale.ROOT);
+        Path targetLocation = this.uploadDir.resolve(fileName);
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        }
+        imageDerivativeService.generateAsync(targetLocation);
         return fileName;
     }
-}
\ No newline at end of file
+
+    /** The stored file with this name, refusing anything outside the upload directory. */
+    public Optional<Path> find(String fileName) {
+        Path path = this.uploadDir.resolve(fileName).normalize();
+        if (!path.getParent().equals(this.uploadDir) || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(path);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.today.Service;
+
+import com.example.today.Model.IdempotencyRecord;
+import com.example.today.Repository.IdempotencyRecordRepository;
+import com.example.today.dto.OrderResponse;
+import com.example.today.util.TransactionHooks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Idempotency keys for checkout. The first request with a key claims it in a
+ * transaction of its own; the order transaction then stores the response on
+ * the claim. Retries with the same key and request get that response back
+ * without touching stock or orders again. Completed responses are also kept
+ * in memory, so a burst of retries is answered without a database round trip.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTransaction;
+    private final Cache<String, CompletedRequest> completed;
+    private final Duration lease;
+    private final Duration retention;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${app.idempotency.cache.ttl:10m}") Duration cacheTtl,
+                              @Value("${app.idempotency.lease:2m}") Duration lease,
+                              @Value("${app.idempotency.retention:24h}") Duration retention) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(cacheTtl.compareTo(retention) < 0 ? cacheTtl : retention)
+                .build();
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    /**
+     * @param requestHash {@link #hash} of the canonical request, used to reject
+     *                    a key reused for a different request
+     */
+    public Claim claim(Long userId, String key, String requestHash) {
+        CompletedRequest cached = completed.getIfPresent(cacheKey(userId, key));
+        if (cached != null) {
+            return cached.requestHash().equals(requestHash)
+                    ? Claim.replay(cached.response())
+                    : Claim.of(Outcome.MISMATCH);
+        }
+
+        Optional<Claim> existing = newTransaction.execute(status -> inspect(userId, key, requestHash));
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return newTransaction.execute(status -> {
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setUserId(userId);
+                record.setIdempotencyKey(key);
+                record.setRequestHash(requestHash);
+                record.setStatus(IdempotencyRecord.IN_PROGRESS);
+                record.setCreatedAt(Instant.now());
+                idempotencyRecordRepository.saveAndFlush(record);
+                return Claim.acquired(record.getId(), userId, key, requestHash);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key inserted first
+            return newTransaction.execute(status -> inspect(userId, key, requestHash))
+                    .orElse(Claim.of(Outcome.IN_PROGRESS));
+        }
+    }
+
+    /**
+     * Stores the response on an acquired claim. Must run in the transaction
+     * that created the order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(Claim claim, OrderResponse response) {
+        IdempotencyRecord record = idempotencyRecordRepository.findById(claim.recordId())
+                .orElseThrow(() -> new IllegalStateException("Idempotency record not found"));
+        try {
+            record.setResponseBody(objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order response", e);
+        }
+        record.setOrderId(response.id());
+        record.setStatus(IdempotencyRecord.COMPLETED);
+        record.setCompletedAt(Instant.now());
+
+        CompletedRequest result = new CompletedRequest(claim.requestHash(), response);
+        TransactionHooks.afterCommit(() -> completed.put(cacheKey(claim.userId(), claim.key()), result));
+    }
+
+    /**
+     * Frees the key after a failed attempt so the client can retry it.
+     */
+    public void release(Claim claim) {
+        newTransaction.executeWithoutResult(status ->
+                idempotencyRecordRepository.deleteInProgress(claim.recordId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:1h}",
+            initialDelayString = "${app.idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.debug("Purged {} idempotency records", deleted);
+        }
+    }
+
+    public static String hash(String canonicalRequest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Optional<Claim> inspect(Long userId, String key, String requestHash) {
+        Optional<IdempotencyRecord> found = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, key);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        IdempotencyRecord record = found.get();
+        if (!record.getRequestHash().equals(requestHash)) {
+            return Optional.of(Claim.of(Outcome.MISMATCH));
+        }
+        if (IdempotencyRecord.COMPLETED.equals(record.getStatus())) {
+            OrderResponse response = readResponse(record);
+            completed.put(cacheKey(userId, key), new CompletedRequest(requestHash, response));
+            return Optional.of(Claim.replay(response));
+        }
+        Instant now = Instant.now();
+        if (record.getCreatedAt().plus(lease).isBefore(now)
+                && idempotencyRecordRepository.takeOver(record.getId(), record.getCreatedAt(), now) == 1) {
+            return Optional.of(Claim.acquired(record.getId(), userId, key, requestHash));
+        }
+        return Optional.of(Claim.of(Outcome.IN_PROGRESS));
+    }
+
+    private OrderResponse readResponse(IdempotencyRecord record) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response of order " + record.getOrderId(), e);
+        }
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+
+    public enum Outcome {
+        /** The caller owns the key and must complete or release the claim */
+        ACQUIRED,
+        /** The key was already used for this request; {@link Claim#response()} holds the result */
+        REPLAY,
+        /** Another request with the key has not finished yet */
+        IN_PROGRESS,
+        /** The key was already used for a different request */
+        MISMATCH
+    }
+
+    public record Claim(Outcome outcome, Long recordId, Long userId, String key, String requestHash,
+                        OrderResponse response) {
+
+        static Claim acquired(Long recordId, Long userId, String key, String requestHash) {
+            return new Claim(Outcome.ACQUIRED, recordId, userId, key, requestHash, null);
+        }
+
+        static Claim replay(OrderResponse response) {
+            return new Claim(Outcome.REPLAY, null, null, null, null, response);
+        }
+
+        static Claim of(Outcome outcome) {
+            return new Claim(outcome, null, null, null, null, null);
+        }
+    }
+
+    private record CompletedRequest(String requestHash, OrderResponse response) {
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.today.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-generated, downscaled JPEG copies of uploaded images. Derivatives sit
+ * next to the original as {@code <name>_<size>.jpg} and are written on a
+ * background pool, so uploads return as soon as the original is stored.
+ * Until a derivative exists, or when the original is already smaller than the
+ * requested size, callers get the original back. Each original's largest side
+ * is read from its header once and remembered until the file changes, so an
+ * image that never gets a derivative is not queued again on every request.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    public enum Size {
+        THUMB(160), SMALL(320), MEDIUM(640);
+
+        private final int maxDimension;
+
+        Size(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        /** Null or blank means the original; unknown names are rejected. */
+        public static Size from(String value) {
+            if (value == null || value.isBlank() || value.equalsIgnoreCase("original")) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown image size: " + value);
+            }
+        }
+    }
+
+    /**
+     * The file to serve and whether it only stands in until the derivative
+     * has been generated, in which case it should not be cached for long.
+     */
+    public record Resolved(Path path, boolean provisional) {
+    }
+
+    private static final int LOCK_STRIPES = 64;
+    // Largest side of originals that never get derivatives: unreadable, unsupported or over the pixel limit
+    private static final int NO_DERIVATIVES = -1;
+
+    private final ThreadPoolTaskExecutor imageExecutor;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Cache<Path, Dimensions> dimensions;
+
+    public ImageDerivativeService(@Qualifier("imageExecutor") ThreadPoolTaskExecutor imageExecutor,
+                                  @Value("${app.images.jpeg-quality:0.8}") float jpegQuality,
+                                  @Value("${app.images.max-pixels:40000000}") long maxPixels,
+                                  @Value("${app.images.dimensions-cache-size:10000}") long dimensionsCacheSize) {
+        this.imageExecutor = imageExecutor;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        this.dimensions = Caffeine.newBuilder().maximumSize(dimensionsCacheSize).build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /** Queues generation of every size for a freshly stored original. */
+    public void generateAsync(Path original) {
+        Path key = original.toAbsolutePath().normalize();
+        if (!pending.add(key)) {
+            return;
+        }
+        try {
+            imageExecutor.execute(() -> {
+                // Cleared before reading, so a replacement arriving mid-run queues another pass
+                pending.remove(key);
+                generate(key);
+            });
+        } catch (TaskRejectedException e) {
+            pending.remove(key);
+            log.debug("Image queue full, deferring derivatives of {}", key);
+        }
+    }
+
+    /**
+     * The file to serve for the requested size: the derivative when it exists,
+     * otherwise the original. The original is final when it is already small
+     * enough or cannot be resized; otherwise the missing derivative is queued
+     * and the original is provisional.
+     */
+    public Resolved resolve(Path original, Size size) {
+        if (size == null) {
+            return new Resolved(original, false);
+        }
+        Path derivative = derivativePath(original, size);
+        if (Files.isRegularFile(derivative)) {
+            return new Resolved(derivative, false);
+        }
+        int largestSide = largestSide(original);
+        if (largestSide == NO_DERIVATIVES || largestSide <= size.getMaxDimension()) {
+            return new Resolved(original, false);
+        }
+        generateAsync(original);
+        return new Resolved(original, true);
+    }
+
+    public void deleteDerivatives(Path original) throws IOException {
+        for (Size size : Size.values()) {
+            Files.deleteIfExists(derivativePath(original, size));
+        }
+    }
+
+    public static Path derivativePath(Path original, Size size) {
+        return original.resolveSibling(baseName(original) + "_" + size.name().toLowerCase(Locale.ROOT) + ".jpg");
+    }
+
+    private static String baseName(Path path) {
+        String fileName = path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    /**
+     * Largest side of the original, or {@link #NO_DERIVATIVES}. Only the image
+     * header is read, and the result is kept until the file is replaced.
+     */
+    private int largestSide(Path original) {
+        Path key = original.toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            // Missing originals are answered with 404 by the caller
+            return NO_DERIVATIVES;
+        }
+        Dimensions known = dimensions.getIfPresent(key);
+        if (known != null && known.describes(attributes)) {
+            return known.largestSide();
+        }
+        int largestSide = readLargestSide(key);
+        dimensions.put(key, Dimensions.of(attributes, largestSide));
+        return largestSide;
+    }
+
+    private int readLargestSide(Path original) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return NO_DERIVATIVES;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                return (long) width * height > maxPixels ? NO_DERIVATIVES : Math.max(width, height);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read the dimensions of {}", original, e);
+            return NO_DERIVATIVES;
+        }
+    }
+
+    private void rememberFailure(Path original) {
+        try {
+            dimensions.put(original, Dimensions.of(
+                    Files.readAttributes(original, BasicFileAttributes.class), NO_DERIVATIVES));
+        } catch (IOException e) {
+            dimensions.invalidate(original);
+        }
+    }
+
+    private void generate(Path original) {
+        // Serialised per file, so a later upload's derivatives always win
+        synchronized (locks[Math.floorMod(original.hashCode(), LOCK_STRIPES)]) {
+            try {
+                BufferedImage source = read(original, Size.values()[Size.values().length - 1].getMaxDimension());
+                if (source == null) {
+                    return;
+                }
+                for (Size size : Size.values()) {
+                    Path target = derivativePath(original, size);
+                    if (Math.max(source.getWidth(), source.getHeight()) <= size.getMaxDimension()) {
+                        // Already small enough; the original is served instead
+                        Files.deleteIfExists(target);
+                        continue;
+                    }
+                    write(scale(source, size.getMaxDimension()), target);
+                }
+            } catch (NoSuchFileException e) {
+                log.debug("Original {} replaced before its derivatives were generated", original);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to generate derivatives of {}", original, e);
+                // Served as the final answer until the file is replaced, instead of retried per request
+                rememberFailure(original);
+            }
+        }
+    }
+
+    /**
+     * Decodes the first frame, subsampling large images so that it is never
+     * held at much more than twice the largest derivative size.
+     */
+    private BufferedImage read(Path original, int largestDimension) throws IOException {
+        if (!Files.exists(original)) {
+            throw new NoSuchFileException(original.toString());
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Skipping derivatives of {}: {}x{} exceeds the pixel limit", original, width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (largestDimension * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        double ratio = (double) maxDimension / Math.max(source.getWidth(), source.getHeight());
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        // JPEG has no alpha channel, so transparent areas are flattened onto white
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "derivative_", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private record Dimensions(Object fileKey, long modifiedNanos, long length, int largestSide) {
+
+        static Dimensions of(BasicFileAttributes attributes, int largestSide) {
+            return new Dimensions(attributes.fileKey(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+                    attributes.size(), largestSide);
+        }
+
+        // Originals are replaced by moving a new file into place, which changes these
+        boolean describes(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey())
+                    && modifiedNanos == attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+                    && length == attributes.size();
+        }
+    }
+}
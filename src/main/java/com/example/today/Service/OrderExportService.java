@@ -0,0 +1,225 @@
+package com.example.today.Service;
+
+import com.example.today.Repository.OrderItemRepository;
+import com.example.today.Repository.OrderRepository;
+import com.example.today.dto.OrderExportRow;
+import com.example.today.dto.OrderLineResponse;
+import com.example.today.dto.OrderResponse;
+import com.example.today.dto.SellerOrderLine;
+import com.example.today.dto.SellerOrderLineResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's order history or a seller's sales straight from a database
+ * cursor to the response stream. Rows are read as projections, so nothing
+ * accumulates in the persistence context, and at most one order is held in
+ * memory at a time.
+ */
+@Service
+public class OrderExportService {
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              OrderItemRepository orderItemRepository,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportOrders(Long userId, Format format, OutputStream out) throws IOException {
+        try (Stream<OrderExportRow> rows = orderRepository.streamExportRowsByUserId(userId)) {
+            if (format == Format.CSV) {
+                writeOrdersCsv(rows.iterator(), out);
+            } else {
+                writeOrdersJson(rows.iterator(), format, out);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportSellerSales(Long sellerId, Format format, OutputStream out) throws IOException {
+        try (Stream<SellerOrderLine> lines = orderItemRepository.streamSellerFeed(sellerId)) {
+            if (format == Format.CSV) {
+                writeSellerCsv(lines.iterator(), out);
+            } else {
+                writeSellerJson(lines.iterator(), format, out);
+            }
+        }
+    }
+
+    private void writeOrdersJson(Iterator<OrderExportRow> rows, Format format, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+
+            OrderExportRow head = null;
+            List<OrderLineResponse> lines = new ArrayList<>();
+            while (rows.hasNext()) {
+                OrderExportRow row = rows.next();
+                if (head == null || !head.orderId().equals(row.orderId())) {
+                    if (head != null) {
+                        writeValue(generator, format, toOrderResponse(head, lines));
+                    }
+                    head = row;
+                    lines = new ArrayList<>();
+                }
+                if (row.itemId() != null) {
+                    lines.add(new OrderLineResponse(row.itemId(), row.productId(), row.sellerId(),
+                            row.quantity(), row.price(), row.image(), row.name()));
+                }
+            }
+            if (head != null) {
+                writeValue(generator, format, toOrderResponse(head, lines));
+            }
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private void writeSellerJson(Iterator<SellerOrderLine> lines, Format format, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+            while (lines.hasNext()) {
+                writeValue(generator, format, SellerOrderLineResponse.of(lines.next()));
+            }
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private void writeOrdersCsv(Iterator<OrderExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = csvWriter(out);
+        writer.write("order_id,created_at,status,total_price,payment_method,shipping_address," +
+                "item_id,product_id,seller_id,name,quantity,price\n");
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            writeCsvRow(writer, row.orderId(), row.createdAt(), row.status(), row.totalPrice(),
+                    row.paymentMethod(), row.shippingAddress(), row.itemId(), row.productId(),
+                    row.sellerId(), row.name(), row.quantity(), row.price());
+        }
+        writer.flush();
+    }
+
+    private void writeSellerCsv(Iterator<SellerOrderLine> lines, OutputStream out) throws IOException {
+        Writer writer = csvWriter(out);
+        writer.write("order_id,order_date,order_status,product_id,product_name,quantity,price,shipping_address\n");
+        while (lines.hasNext()) {
+            SellerOrderLine line = lines.next();
+            writeCsvRow(writer, line.orderId(), line.orderDate(), line.orderStatus(), line.productId(),
+                    line.productName(), line.quantity(), line.price(), line.shippingAddress());
+        }
+        writer.flush();
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // The servlet container owns the response stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private void writeValue(JsonGenerator generator, Format format, Object value) throws IOException {
+        generator.writeObject(value);
+        if (format == Format.NDJSON) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    private OrderResponse toOrderResponse(OrderExportRow head, List<OrderLineResponse> lines) {
+        return new OrderResponse(head.orderId(), head.userId(), head.totalPrice(), head.shippingAddress(),
+                head.paymentMethod(), head.status().getValue(), head.createdAt(), lines);
+    }
+
+    private Writer csvWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof String text) {
+                writer.write(escapeCsv(neutralizeFormula(text)));
+            } else if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    // Spreadsheets evaluate text cells starting with these as formulas; numbers are written as is
+    private String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public enum Format {
+        JSON("application/json"),
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.today.Service;
+
+import com.example.today.event.OrderCreatedEvent;
+import com.example.today.event.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Customer notifications for order events. There is no mail or push channel
+ * yet, so notifications are only logged.
+ */
+@Service
+public class OrderNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNotificationService.class);
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        logger.info("Order {} placed by user {} with {} line(s)",
+                event.orderId(), event.userId(), event.lines().size());
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        logger.info("Order {} of user {} moved from {} to {}",
+                event.orderId(), event.userId(), event.previousStatus(), event.newStatus());
+    }
+}
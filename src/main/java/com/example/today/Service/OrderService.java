@@ -2,7 +2,16 @@ package com.example.today.Service;
 
 import com.example.today.Model.*;
 import com.example.today.Repository.*;
+import com.example.today.dto.CursorPage;
+import com.example.today.dto.KeysetCursor;
+import com.example.today.dto.OrderResponse;
+import com.example.today.dto.SellerOrderLine;
+import com.example.today.event.OrderCreatedEvent;
+import com.example.today.event.OrderStatusChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,37 +23,79 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
     private final CartService cartService;
+    private final OutboxService outboxService;
+    private final IdempotencyService idempotencyService;
+    private final OrderStateMachine orderStateMachine;
+
+    @Value("${app.orders.page.default-size:20}")
+    private int defaultHistoryPageSize;
+
+    @Value("${app.orders.page.max-size:100}")
+    private int maxHistoryPageSize;
+
+    @Value("${app.orders.bulk-status.max-size:200}")
+    private int maxBulkStatusUpdateSize;
 
     @Autowired
     public OrderService(OrderRepository orderRepository,
                         OrderItemRepository orderItemRepository,
                         ProductRepository productRepository,
-                        CartService cartService) {
+                        StockReservationService stockReservationService,
+                        CartService cartService,
+                        OutboxService outboxService,
+                        IdempotencyService idempotencyService,
+                        OrderStateMachine orderStateMachine) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.productRepository = productRepository;
+        this.stockReservationService = stockReservationService;
         this.cartService = cartService;
+        this.outboxService = outboxService;
+        this.idempotencyService = idempotencyService;
+        this.orderStateMachine = orderStateMachine;
     }
 
     @Transactional
     public Order createOrder(Long userId, String shippingAddress, String paymentMethod, List<OrderItemRequest> items) {
+        return createOrder(userId, shippingAddress, paymentMethod, items, null);
+    }
+
+    /**
+     * @param idempotencyClaim acquired claim to complete with this order's
+     *                         response in the same transaction, or null
+     */
+    @Transactional
+    public Order createOrder(Long userId, String shippingAddress, String paymentMethod, List<OrderItemRequest> items,
+                             IdempotencyService.Claim idempotencyClaim) {
         Order order = new Order();
         order.setUserId(userId);
         order.setShippingAddress(shippingAddress);
         order.setPaymentMethod(paymentMethod);
-        order.setStatus("pending");
+        order.setStatus(OrderStatus.PENDING);
         order.setCreatedAt(Instant.now());
 
-        List<OrderItem> orderItems = new ArrayList<>();
+        Set<String> productIds = new HashSet<>();
+        for (OrderItemRequest itemRequest : items) {
+            if (itemRequest.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid quantity");
+            }
+            productIds.add(String.valueOf(itemRequest.getProductId()));
+        }
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+
+        List<OrderItem> orderItems = new ArrayList<>(items.size());
+        Map<String, Integer> reservedQuantities = new LinkedHashMap<>();
         double totalPrice = 0.0;
 
         for (OrderItemRequest itemRequest : items) {
-            Product product = productRepository.findById(String.valueOf(itemRequest.getProductId()))
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
-
-            if (product.getStock() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+            Product product = products.get(String.valueOf(itemRequest.getProductId()));
+            if (product == null) {
+                throw new RuntimeException("Product not found");
             }
 
             OrderItem orderItem = new OrderItem();
@@ -57,81 +108,148 @@ public class OrderService {
             orderItem.setName(product.getName());
             totalPrice += product.getPrice() * itemRequest.getQuantity();
             orderItems.add(orderItem);
-
-            // Update product stock
-            product.setStock(product.getStock() - itemRequest.getQuantity());
-            productRepository.save(product);
+            reservedQuantities.merge(product.getId(), itemRequest.getQuantity(), Integer::sum);
         }
 
+        // Conditional decrements: fails (and rolls back) instead of overselling
+        stockReservationService.reserve(reservedQuantities);
+
         order.setTotalPrice(totalPrice);
         order.setOrderItems(orderItems);
-        orderRepository.save(order);
-        orderItemRepository.saveAll(orderItems);
+        // Order items cascade from the order; sequence ids let Hibernate batch the inserts.
+        // Flushed here so @CreationTimestamp is set before the event and response capture it.
+        orderRepository.saveAndFlush(order);
+        // One delete in the order transaction; deferring it would also wipe items added after checkout
         cartService.clearCart(userId);
+        // Seller analytics and notifications run after commit
+        outboxService.append(order.getId(), OrderCreatedEvent.of(order));
+        if (idempotencyClaim != null) {
+            idempotencyService.complete(idempotencyClaim, OrderResponse.of(order));
+        }
         return order;
     }
 
     @Transactional
     public Order updateOrderStatus(Long orderId, String newStatus) {
+        OrderStatus target = OrderStatus.from(newStatus);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        // Validate status transition
-        if (!isValidStatusTransition(order.getStatus(), newStatus)) {
-            throw new RuntimeException("Invalid status transition from " + order.getStatus() + " to " + newStatus);
-        }
+        OrderStatus previousStatus = order.getStatus();
+        orderStateMachine.transition(order, target);
+        Order saved = orderRepository.save(order);
+        outboxService.append(orderId, OrderStatusChangedEvent.of(saved, previousStatus));
+        return saved;
+    }
 
-        // Handle stock changes for specific status transitions
-        if (newStatus.equals("cancelled") && !order.getStatus().equals("cancelled")) {
-            restoreProductStock(order);
-        } else if (newStatus.equals("sold") && order.getStatus().equals("pending")) {
-            validateProductStock(order);
+    /**
+     * Moves the seller's orders among {@code orderIds} to {@code newStatus} in
+     * one transaction: the orders are loaded with one query, stock changes are
+     * applied as one batch per transition and the status updates are batched.
+     * Nothing changes unless every order can make the transition.
+     */
+    @Transactional
+    public BulkStatusResult updateSellerOrderStatuses(Long sellerId, Collection<Long> orderIds, String newStatus) {
+        OrderStatus target = OrderStatus.from(newStatus);
+        Set<Long> requested = new LinkedHashSet<>(orderIds);
+        if (requested.size() > maxBulkStatusUpdateSize) {
+            throw new IllegalArgumentException("At most " + maxBulkStatusUpdateSize + " orders per request");
         }
 
-        order.setStatus(newStatus);
-        return orderRepository.save(order);
-    }
+        List<Order> orders = new ArrayList<>(requested.size());
+        Set<Long> found = new HashSet<>();
+        if (!requested.isEmpty()) {
+            for (Order order : orderRepository.findWithItemsByIdIn(requested)) {
+                boolean sellersOrder = order.getOrderItems().stream()
+                        .anyMatch(item -> sellerId.equals(item.getSellerId()));
+                if (sellersOrder) {
+                    orders.add(order);
+                    found.add(order.getId());
+                }
+            }
+        }
+        List<Long> notFound = new ArrayList<>();
+        for (Long orderId : requested) {
+            if (!found.contains(orderId)) {
+                notFound.add(orderId);
+            }
+        }
+        Map<Long, OrderStatus> rejected = new LinkedHashMap<>();
+        for (Order order : orders) {
+            if (!orderStateMachine.canTransition(order.getStatus(), target)) {
+                rejected.put(order.getId(), order.getStatus());
+            }
+        }
+        if (!notFound.isEmpty() || !rejected.isEmpty()) {
+            return new BulkStatusResult(List.of(), notFound, rejected);
+        }
 
-    private boolean isValidStatusTransition(String currentStatus, String newStatus) {
-        // Define allowed status transitions
-        Map<String, Set<String>> allowedTransitions = Map.of(
-                "pending", Set.of("sold", "cancelled"),
-                "sold", Set.of("shipped", "cancelled"),
-                "shipped", Set.of("delivered"),
-                "cancelled", Set.of("pending")
-        );
-        return allowedTransitions.getOrDefault(currentStatus, Set.of()).contains(newStatus);
+        Map<Long, OrderStatus> previousStatuses = new HashMap<>();
+        for (Order order : orders) {
+            previousStatuses.put(order.getId(), order.getStatus());
+        }
+        orderStateMachine.transitionAll(orders, target);
+        orderRepository.saveAll(orders);
+        List<Long> updated = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            outboxService.append(order.getId(), OrderStatusChangedEvent.of(order, previousStatuses.get(order.getId())));
+            updated.add(order.getId());
+        }
+        return new BulkStatusResult(updated, notFound, rejected);
     }
 
-    private void restoreProductStock(Order order) {
-        for (OrderItem item : order.getOrderItems()) {
-            Product product = productRepository.findById(String.valueOf(item.getProductId()))
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
+    public record BulkStatusResult(List<Long> updated, List<Long> notFound, Map<Long, OrderStatus> rejected) {
+        public boolean applied() {
+            return notFound.isEmpty() && rejected.isEmpty();
         }
     }
 
-    private void validateProductStock(Order order) {
-        for (OrderItem item : order.getOrderItems()) {
-            Product product = productRepository.findById(String.valueOf(item.getProductId()))
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
-            if (product.getStock() < item.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrderHistoryPage(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultHistoryPageSize : Math.max(1, Math.min(limit, maxHistoryPageSize));
+        // Fetch one extra id to know whether another page exists
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<Long> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = orderRepository.findHistoryFirstPageIds(userId, window);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            if (position.createdAt() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
             }
+            long lastId;
+            try {
+                lastId = Long.parseLong(position.id());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            ids = orderRepository.findHistoryPageIdsAfter(userId, position.createdAt(), lastId, window);
         }
-    }
 
-    public List<Order> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserId(userId);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        List<Order> orders = ids.isEmpty() ? List.of() : orderRepository.findWithItemsByIdIn(ids);
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), String.valueOf(last.getId())).encode();
+        }
+        return new CursorPage<>(orders, nextCursor, hasMore);
     }
 
     public Optional<Order> getOrderById(Long orderId) {
         return orderRepository.findById(orderId);
     }
 
-    public List<OrderItem> getOrderItemsBySeller(Long sellerId) {
-        return orderItemRepository.findBySellerId(sellerId);
+    @Transactional(readOnly = true)
+    public Slice<SellerOrderLine> getSellerOrderFeed(Long sellerId, int page, int size, boolean oldestFirst) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        return oldestFirst
+                ? orderItemRepository.findSellerFeedOldestFirst(sellerId, pageRequest)
+                : orderItemRepository.findSellerFeedNewestFirst(sellerId, pageRequest);
     }
 
     public static class OrderItemRequest {
@@ -0,0 +1,103 @@
+package com.example.today.Service;
+
+import com.example.today.Model.Order;
+import com.example.today.Model.OrderItem;
+import com.example.today.Model.OrderStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Allowed order status transitions and the stock side effects attached to
+ * them. Both tables are built once; a transition is an EnumSet lookup plus at
+ * most one hook. Hooks receive every order making the same transition, so a
+ * bulk update adjusts stock with one batched reservation or release.
+ */
+@Component
+public class OrderStateMachine {
+
+    @FunctionalInterface
+    interface TransitionHook {
+        void apply(List<Order> orders);
+    }
+
+    private final Map<OrderStatus, Set<OrderStatus>> transitions = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, Map<OrderStatus, TransitionHook>> hooks = new EnumMap<>(OrderStatus.class);
+    private final StockReservationService stockReservationService;
+
+    public OrderStateMachine(StockReservationService stockReservationService) {
+        this.stockReservationService = stockReservationService;
+
+        allow(OrderStatus.PENDING, OrderStatus.SOLD, OrderStatus.CANCELLED);
+        allow(OrderStatus.SOLD, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+        allow(OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+        allow(OrderStatus.DELIVERED);
+        allow(OrderStatus.CANCELLED, OrderStatus.PENDING);
+
+        // Stock is reserved at checkout, given back on cancel and taken again on reopen.
+        // Pending -> sold has no hook: the order already holds its stock.
+        on(OrderStatus.PENDING, OrderStatus.CANCELLED, this::releaseStock);
+        on(OrderStatus.SOLD, OrderStatus.CANCELLED, this::releaseStock);
+        on(OrderStatus.CANCELLED, OrderStatus.PENDING, this::reserveStock);
+    }
+
+    public boolean canTransition(OrderStatus from, OrderStatus to) {
+        return transitions.get(from).contains(to);
+    }
+
+    public void transition(Order order, OrderStatus target) {
+        transitionAll(List.of(order), target);
+    }
+
+    /**
+     * Moves every order to {@code target}, running each transition's hook once
+     * for all orders that share it. Throws before changing anything if any
+     * order cannot make the transition.
+     */
+    public void transitionAll(Collection<Order> orders, OrderStatus target) {
+        Map<OrderStatus, List<Order>> bySource = new EnumMap<>(OrderStatus.class);
+        for (Order order : orders) {
+            if (!canTransition(order.getStatus(), target)) {
+                throw new RuntimeException("Invalid status transition from " + order.getStatus() + " to " + target);
+            }
+            bySource.computeIfAbsent(order.getStatus(), status -> new ArrayList<>()).add(order);
+        }
+        bySource.forEach((source, group) -> {
+            TransitionHook hook = hooks.get(source).get(target);
+            if (hook != null) {
+                hook.apply(group);
+            }
+            for (Order order : group) {
+                order.setStatus(target);
+            }
+        });
+    }
+
+    private void allow(OrderStatus from, OrderStatus... to) {
+        transitions.put(from, to.length == 0 ? EnumSet.noneOf(OrderStatus.class) : EnumSet.of(to[0], to));
+        hooks.put(from, new EnumMap<>(OrderStatus.class));
+    }
+
+    private void on(OrderStatus from, OrderStatus to, TransitionHook hook) {
+        hooks.get(from).put(to, hook);
+    }
+
+    private void releaseStock(List<Order> orders) {
+        stockReservationService.release(quantities(orders));
+    }
+
+    private void reserveStock(List<Order> orders) {
+        // Conditional decrements: fails (and rolls back) instead of overselling
+        stockReservationService.reserve(quantities(orders));
+    }
+
+    private static Map<String, Integer> quantities(List<Order> orders) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                quantities.merge(String.valueOf(item.getProductId()), item.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+}
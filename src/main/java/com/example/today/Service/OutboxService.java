@@ -0,0 +1,141 @@
+package com.example.today.Service;
+
+import com.example.today.Model.OutboxEvent;
+import com.example.today.Repository.OutboxEventRepository;
+import com.example.today.event.OrderCreatedEvent;
+import com.example.today.event.OrderStatusChangedEvent;
+import com.example.today.util.TransactionHooks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for order events. {@link #append} stores the event with
+ * the order change; after commit it is dispatched on the order event executor,
+ * where it is claimed and published to the {@code @EventListener}s in one
+ * transaction. Events that could not be dispatched right away (full queue,
+ * failing listener, restart) are picked up by the poller.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    private static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            OrderCreatedEvent.class.getSimpleName(), OrderCreatedEvent.class,
+            OrderStatusChangedEvent.class.getSimpleName(), OrderStatusChangedEvent.class
+    );
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor executor;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         ObjectMapper objectMapper,
+                         ApplicationEventPublisher eventPublisher,
+                         @Qualifier("orderEventExecutor") TaskExecutor executor,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.outbox.batch-size:100}") int batchSize,
+                         @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                         @Value("${app.outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+    }
+
+    @Transactional
+    public void append(Long aggregateId, Object event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventType(event.getClass().getSimpleName());
+        outboxEvent.setAggregateId(aggregateId);
+        outboxEvent.setCreatedAt(Instant.now());
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + outboxEvent.getEventType(), e);
+        }
+        outboxEventRepository.save(outboxEvent);
+
+        Long eventId = outboxEvent.getId();
+        TransactionHooks.afterCommit(() -> submit(eventId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:5s}",
+            initialDelayString = "${app.outbox.poll-interval:5s}")
+    public void dispatchPending() {
+        List<Long> pending = outboxEventRepository.findPendingIds(maxAttempts, PageRequest.of(0, batchSize));
+        pending.forEach(this::dispatch);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval:1h}",
+            initialDelayString = "${app.outbox.purge-interval:1h}")
+    public void purgeProcessed() {
+        int deleted = outboxEventRepository.deleteProcessedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.debug("Purged {} processed outbox events", deleted);
+        }
+    }
+
+    void dispatch(Long eventId) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (outboxEventRepository.claim(eventId, Instant.now()) == 0) {
+                    return;
+                }
+                OutboxEvent outboxEvent = outboxEventRepository.findById(eventId).orElseThrow();
+                eventPublisher.publishEvent(deserialize(outboxEvent));
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Order event {} failed and will be retried", eventId, e);
+            String error = String.valueOf(e.getMessage());
+            outboxEventRepository.recordFailure(eventId, error.length() > 1000 ? error.substring(0, 1000) : error);
+        }
+    }
+
+    private void submit(Long eventId) {
+        try {
+            executor.execute(() -> dispatch(eventId));
+        } catch (TaskRejectedException e) {
+            logger.debug("Order event queue full, event {} left to the poller", eventId);
+        }
+    }
+
+    private Object deserialize(OutboxEvent outboxEvent) {
+        Class<?> type = EVENT_TYPES.get(outboxEvent.getEventType());
+        if (type == null) {
+            throw new IllegalStateException("Unknown outbox event type: " + outboxEvent.getEventType());
+        }
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read outbox event " + outboxEvent.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.today.Service;
+
+import com.example.today.Model.Product;
+import com.example.today.Repository.ProductRepository;
+import com.example.today.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache of product data used on the cart, wishlist and order hot
+ * paths. Entries are immutable snapshots rather than managed entities, so they
+ * are safe to share between requests; anything that needs to write a product
+ * still goes through {@link ProductRepository}.
+ */
+@Component
+public class ProductCache {
+    private final ProductRepository productRepository;
+    private final Cache<String, CachedProduct> cache;
+
+    public ProductCache(ProductRepository productRepository,
+                        @Value("${app.cache.products.maximum-size:10000}") long maximumSize,
+                        @Value("${app.cache.products.ttl:5m}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<CachedProduct> get(String productId) {
+        // Missing products are not cached, so a newly created id is seen at once
+        return Optional.ofNullable(cache.get(productId, id ->
+                productRepository.findById(id).map(CachedProduct::of).orElse(null)));
+    }
+
+    public CachedProduct getRequired(String productId) {
+        return get(productId).orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    /**
+     * Drops the entry now and again when the transaction ends, so neither a
+     * concurrent reader nor this transaction can leave a stale row cached.
+     */
+    public void evict(String productId) {
+        cache.invalidate(productId);
+        TransactionHooks.afterCompletion(() -> cache.invalidate(productId));
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("size", cache.estimatedSize());
+        data.put("hits", stats.hitCount());
+        data.put("misses", stats.missCount());
+        data.put("hit_rate", stats.hitRate());
+        data.put("evictions", stats.evictionCount());
+        data.put("average_load_millis", stats.averageLoadPenalty() / 1_000_000.0);
+        return data;
+    }
+
+    public record CachedProduct(
+            String id,
+            String name,
+            String description,
+            Double price,
+            Integer discount,
+            String image,
+            String category,
+            String brand,
+            Double rating,
+            Integer stock,
+            Long sellerId) {
+
+        static CachedProduct of(Product product) {
+            return new CachedProduct(
+                    product.getId(),
+                    product.getName(),
+                    product.getDescription(),
+                    product.getPrice(),
+                    product.getDiscount(),
+                    product.getImage(),
+                    product.getCategory(),
+                    product.getBrand(),
+                    product.getRating(),
+                    product.getStock(),
+                    product.getSeller_id());
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.today.Service;
+
+import com.example.today.Model.OrderStatus;
+import com.example.today.Model.ProductPopularity;
+import com.example.today.Repository.ProductPopularityRepository;
+import com.example.today.dto.PopularProduct;
+import com.example.today.event.OrderCreatedEvent;
+import com.example.today.event.OrderEventLine;
+import com.example.today.event.OrderStatusChangedEvent;
+import com.example.today.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory popularity counters per product, fed by wishlist changes and
+ * order events and used for the "trending" and "most wishlisted" rails.
+ *
+ * <p>Recording is a {@link LongAdder} increment after the change commits, so
+ * it adds no locking or I/O to add-to-wishlist or checkout. A scheduled flush
+ * drains the adders into {@code product_popularity} with relative updates;
+ * the table is loaded on startup and reloaded periodically, which also picks
+ * up what other instances flushed. The trending score decays with a
+ * configurable half-life; a flush decays the stored score to the flush time
+ * in SQL and adds the new activity, so instances never overwrite each other.
+ */
+@Service
+public class ProductPopularityService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductPopularityService.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE product_popularity SET category = ?, wishlist_count = wishlist_count + ?, " +
+                    "order_units = order_units + ?, " +
+                    "trending_score = trending_score * POWER(0.5, GREATEST(EXTRACT(EPOCH FROM " +
+                    "(CAST(? AS TIMESTAMP WITH TIME ZONE) - trending_at)), 0) / ?) + ?, " +
+                    "trending_at = GREATEST(trending_at, CAST(? AS TIMESTAMP WITH TIME ZONE)) " +
+                    "WHERE product_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO product_popularity " +
+                    "(category, wishlist_count, order_units, trending_score, trending_at, product_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String BACKFILL_SQL =
+            "INSERT INTO product_popularity " +
+                    "(product_id, category, wishlist_count, order_units, trending_score, trending_at) " +
+                    "SELECT p.id, p.category, " +
+                    "(SELECT COUNT(*) FROM wishlist_items w WHERE w.product_id = p.id), " +
+                    "(SELECT COALESCE(SUM(oi.quantity), 0) FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "WHERE CAST(oi.product_id AS VARCHAR(255)) = p.id " +
+                    "AND o.status <> '" + OrderStatus.CANCELLED.getValue() + "'), " +
+                    "0, CURRENT_TIMESTAMP " +
+                    "FROM products p " +
+                    "WHERE EXISTS (SELECT 1 FROM wishlist_items w WHERE w.product_id = p.id) " +
+                    "OR EXISTS (SELECT 1 FROM order_items oi WHERE CAST(oi.product_id AS VARCHAR(255)) = p.id)";
+
+    private final ProductPopularityRepository productPopularityRepository;
+    private final ProductCache productCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final double halfLifeMillis;
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public ProductPopularityService(ProductPopularityRepository productPopularityRepository,
+                                    ProductCache productCache,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.popularity.trending.half-life:3d}") Duration halfLife) {
+        this.productPopularityRepository = productPopularityRepository;
+        this.productCache = productCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.halfLifeMillis = halfLife.toMillis();
+    }
+
+    public void wishlistAdded(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            for (String productId : productIds) {
+                Counter counter = counter(productId);
+                counter.wishlistDelta.increment();
+                counter.activityDelta.increment();
+            }
+        });
+    }
+
+    public void wishlistRemoved(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            for (String productId : productIds) {
+                counter(productId).wishlistDelta.decrement();
+            }
+        });
+    }
+
+    // Order events arrive in the outbox claim transaction, which may be retried
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (OrderStatus.from(event.status()) == OrderStatus.CANCELLED) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            for (OrderEventLine line : event.lines()) {
+                Counter counter = counter(String.valueOf(line.productId()));
+                counter.orderDelta.add(line.quantity());
+                counter.activityDelta.add(line.quantity());
+            }
+        });
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasCounted = OrderStatus.from(event.previousStatus()) != OrderStatus.CANCELLED;
+        boolean isCounted = OrderStatus.from(event.newStatus()) != OrderStatus.CANCELLED;
+        if (wasCounted == isCounted) {
+            return;
+        }
+        int sign = isCounted ? 1 : -1;
+        TransactionHooks.afterCommit(() -> {
+            for (OrderEventLine line : event.lines()) {
+                counter(String.valueOf(line.productId())).orderDelta.add((long) sign * line.quantity());
+            }
+        });
+    }
+
+    public List<PopularProduct> getTrending(String category, int limit) {
+        long now = System.currentTimeMillis();
+        return top(category, limit, counter -> counter.currentTrendingScore(now, halfLifeMillis));
+    }
+
+    public List<PopularProduct> getMostWishlisted(String category, int limit) {
+        return top(category, limit, Counter::currentWishlistCount);
+    }
+
+    /**
+     * Keeps the best {@code limit} products in a min-heap while scanning the
+     * counters once, so a rail costs O(products × log limit).
+     */
+    private List<PopularProduct> top(String category, int limit, ToDoubleFunction<Counter> score) {
+        Comparator<Map.Entry<Counter, Double>> byScore = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<Counter, Double>> heap = new PriorityQueue<>(limit + 1, byScore);
+        for (Counter counter : counters.values()) {
+            if (category != null && !category.equalsIgnoreCase(categoryOf(counter))) {
+                continue;
+            }
+            double value = score.applyAsDouble(counter);
+            if (value <= 0) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(Map.entry(counter, value));
+            } else if (value > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(Map.entry(counter, value));
+            }
+        }
+
+        List<Map.Entry<Counter, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(byScore.reversed());
+        List<PopularProduct> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<Counter, Double> entry : ranked) {
+            // Deleted products keep their counters until the next reload, but are not shown
+            productCache.get(entry.getKey().productId).ifPresent(product -> result.add(new PopularProduct(
+                    product.id(), product.name(), product.price(), product.discount(),
+                    product.image(), product.category(), entry.getValue())));
+        }
+        return result;
+    }
+
+    /**
+     * Moves pending deltas into the in-memory totals and the table in one
+     * transaction. Totals are updated before the write so readers never see
+     * a dip; if the write fails, both are put back for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.popularity.flush-interval:30s}",
+            initialDelayString = "${app.popularity.flush-interval:30s}")
+    public synchronized void flush() {
+        Instant now = Instant.now();
+        List<Drained> drained = new ArrayList<>();
+        for (Counter counter : counters.values()) {
+            long wishlist = counter.wishlistDelta.sumThenReset();
+            long orders = counter.orderDelta.sumThenReset();
+            long activity = counter.activityDelta.sumThenReset();
+            if (wishlist == 0 && orders == 0 && activity == 0) {
+                continue;
+            }
+            Drained entry = new Drained(counter, wishlist, orders, activity, counter.trendingScore, counter.trendingAt);
+            categoryOf(counter);
+            counter.wishlistCount += wishlist;
+            counter.orderUnits += orders;
+            counter.trendingScore = decay(counter.trendingScore, counter.trendingAt, now.toEpochMilli(), halfLifeMillis) + activity;
+            counter.trendingAt = now.toEpochMilli();
+            drained.add(entry);
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> write(drained, now));
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Could not flush popularity counters for {} products, will retry", drained.size(), e);
+            for (Drained entry : drained) {
+                Counter counter = entry.counter;
+                counter.wishlistCount -= entry.wishlist;
+                counter.orderUnits -= entry.orders;
+                counter.trendingScore = entry.previousScore;
+                counter.trendingAt = entry.previousAt;
+                counter.wishlistDelta.add(entry.wishlist);
+                counter.orderDelta.add(entry.orders);
+                counter.activityDelta.add(entry.activity);
+            }
+        }
+    }
+
+    // A graceful shutdown writes what is pending instead of losing up to one flush interval
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<Drained> drained, Instant now) {
+        Timestamp trendingAt = Timestamp.from(now);
+        double halfLifeSeconds = halfLifeMillis / 1000;
+        List<Object[]> updates = new ArrayList<>(drained.size());
+        for (Drained entry : drained) {
+            Counter counter = entry.counter;
+            updates.add(new Object[]{counter.category, entry.wishlist, entry.orders,
+                    trendingAt, halfLifeSeconds, entry.activity, trendingAt, counter.productId});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Drained entry = drained.get(i);
+                Counter counter = entry.counter;
+                inserts.add(new Object[]{counter.category, entry.wishlist, entry.orders,
+                        counter.trendingScore, trendingAt, counter.productId});
+            }
+        }
+        // A concurrent insert from another instance fails this flush; the next one updates instead
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    /**
+     * Replaces the flushed totals with the table contents, which include
+     * what other instances flushed. Pending deltas are kept.
+     */
+    @Scheduled(fixedDelayString = "${app.popularity.reload-interval:5m}",
+            initialDelayString = "${app.popularity.reload-interval:5m}")
+    public synchronized void reload() {
+        try {
+            List<ProductPopularity> rows = transaction.execute(status -> productPopularityRepository.findAll());
+            for (ProductPopularity row : rows) {
+                Counter counter = counter(row.getProductId());
+                counter.category = row.getCategory();
+                counter.wishlistCount = row.getWishlistCount();
+                counter.orderUnits = row.getOrderUnits();
+                counter.trendingScore = row.getTrendingScore();
+                counter.trendingAt = row.getTrendingAt().toEpochMilli();
+            }
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Could not load popularity counters", e);
+        }
+    }
+
+    /**
+     * Builds the counters from existing wishlists and orders the first time
+     * the table is empty, then loads them. Runs once every bean exists but
+     * before the web server and the outbox poller start, so nothing can be
+     * recorded as a pending delta that the backfill also counts.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transaction.executeWithoutResult(status -> {
+                Boolean populated = jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM product_popularity)", Boolean.class);
+                if (!Boolean.TRUE.equals(populated)) {
+                    jdbcTemplate.update(BACKFILL_SQL);
+                }
+            });
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Could not backfill popularity counters", e);
+        }
+        reload();
+    }
+
+    // Products first seen since the last reload have no category until it is looked up
+    private String categoryOf(Counter counter) {
+        String category = counter.category;
+        if (category == null) {
+            category = productCache.get(counter.productId).map(ProductCache.CachedProduct::category).orElse(null);
+            counter.category = category;
+        }
+        return category;
+    }
+
+    private Counter counter(String productId) {
+        return counters.computeIfAbsent(productId, Counter::new);
+    }
+
+    private static double decay(double score, long fromMillis, long toMillis, double halfLifeMillis) {
+        if (score == 0 || toMillis <= fromMillis) {
+            return score;
+        }
+        return score * Math.pow(0.5, (toMillis - fromMillis) / halfLifeMillis);
+    }
+
+    private static final class Counter {
+        final String productId;
+        final LongAdder wishlistDelta = new LongAdder();
+        final LongAdder orderDelta = new LongAdder();
+        final LongAdder activityDelta = new LongAdder();
+
+        volatile String category;
+        // Flushed totals; written only by the (synchronized) flush and reload
+        volatile long wishlistCount;
+        volatile long orderUnits;
+        volatile double trendingScore;
+        volatile long trendingAt;
+
+        Counter(String productId) {
+            this.productId = productId;
+        }
+
+        double currentWishlistCount() {
+            return wishlistCount + wishlistDelta.sum();
+        }
+
+        double currentTrendingScore(long now, double halfLifeMillis) {
+            return decay(trendingScore, trendingAt, now, halfLifeMillis) + activityDelta.sum();
+        }
+    }
+
+    private record Drained(Counter counter, long wishlist, long orders, long activity,
+                           double previousScore, long previousAt) {
+    }
+}
@@ -2,23 +2,78 @@ package com.example.today.Service;
 
 import com.example.today.Model.Product;
 import com.example.today.Repository.ProductRepository;
+import com.example.today.dto.CursorPage;
+import com.example.today.dto.KeysetCursor;
+import com.example.today.dto.ProductSearchCriteria;
+import com.example.today.dto.ProductSearchResult;
+import com.example.today.dto.ProductSuggestion;
+import com.example.today.search.ProductTextIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ProductService {
     private final ProductRepository productRepository;
+    private final ProductTextIndex productTextIndex;
+    private final ProductCache productCache;
+
+    @Value("${app.products.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.products.page.max-size:100}")
+    private int maxPageSize;
 
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductTextIndex productTextIndex,
+                          ProductCache productCache) {
         this.productRepository = productRepository;
+        this.productTextIndex = productTextIndex;
+        this.productCache = productCache;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Product> getProductPage(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        // Fetch one extra row to know whether another page exists
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<Product> products;
+        if (cursor == null || cursor.isBlank()) {
+            products = productRepository.findFirstPage(window);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            products = position.createdAt() == null
+                    ? productRepository.findPageAfterUndated(position.id(), window)
+                    : productRepository.findPageAfter(position.createdAt(), position.id(), window);
+        }
+
+        boolean hasMore = products.size() > pageSize;
+        if (hasMore) {
+            products = products.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = products.get(products.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(products, nextCursor, hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductSearchResult searchProducts(ProductSearchCriteria criteria) {
+        return productRepository.search(criteria);
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public int resolvePageSize(Integer requested) {
+        return requested == null ? defaultPageSize : Math.max(1, Math.min(requested, maxPageSize));
     }
 
     public Optional<Product> getProductById(String id) {
@@ -26,9 +81,15 @@ public class ProductService {
     }
 
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        if (product.getCreatedAt() == null) {
+            product.setCreatedAt(Instant.now());
+        }
+        Product savedProduct = productRepository.save(product);
+        productTextIndex.index(savedProduct);
+        return savedProduct;
     }
 
+    @Transactional
     public Product updateProduct(String id, Product productDetails) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -49,10 +110,19 @@ public class ProductService {
         if (productDetails.getSpecifications() != null) existingProduct.setSpecifications(productDetails.getSpecifications());
         if (productDetails.getSeller_id() != null) existingProduct.setSeller_id(productDetails.getSeller_id());
 
-        return productRepository.save(existingProduct);
+        Product savedProduct = productRepository.save(existingProduct);
+        productCache.evict(id);
+        productTextIndex.index(savedProduct);
+        return savedProduct;
+    }
+
+    public List<ProductSuggestion> suggestProducts(String query, int limit) {
+        return productTextIndex.suggest(query, limit);
     }
 
     public void deleteProduct(String id) {
         productRepository.deleteById(id);
+        productCache.evict(id);
+        productTextIndex.remove(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,329 @@
+package com.example.today.Service;
+
+import com.example.today.Model.*;
+import com.example.today.Repository.SellerDailySalesRepository;
+import com.example.today.Repository.SellerProductSalesRepository;
+import com.example.today.Repository.SellerSalesRepository;
+import com.example.today.Repository.SellerStatusCountRepository;
+import com.example.today.dto.SellerAnalytics;
+import com.example.today.event.OrderCreatedEvent;
+import com.example.today.event.OrderEventLine;
+import com.example.today.event.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Maintains per-seller sales aggregates (totals, per product, per day and
+ * order counts per status) from the order events, so seller dashboards read a
+ * handful of rows instead of scanning order lines. Events are applied in the
+ * outbox claim transaction, so each one is counted exactly once, and since
+ * they are pure deltas the events of one order may arrive in any order.
+ *
+ * <p>Each change is applied as a relative UPDATE. A row that does not exist
+ * yet is inserted behind a JDBC savepoint; if a concurrent order inserted it
+ * first, the UPDATE is simply repeated.
+ */
+@Service
+public class SellerAnalyticsService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SellerAnalyticsService.class);
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final Upsert SALES = new Upsert(
+            "UPDATE seller_sales SET revenue = revenue + ?, units_sold = units_sold + ? WHERE seller_id = ?",
+            "INSERT INTO seller_sales (seller_id, revenue, units_sold) VALUES (?, ?, ?)");
+    private static final Upsert PRODUCT_SALES = new Upsert(
+            "UPDATE seller_product_sales SET revenue = revenue + ?, units_sold = units_sold + ? " +
+                    "WHERE seller_id = ? AND product_id = ?",
+            "INSERT INTO seller_product_sales (seller_id, product_id, revenue, units_sold) VALUES (?, ?, ?, ?)");
+    private static final Upsert DAILY_SALES = new Upsert(
+            "UPDATE seller_daily_sales SET revenue = revenue + ?, units_sold = units_sold + ?, " +
+                    "order_count = order_count + ? WHERE seller_id = ? AND sales_date = ?",
+            "INSERT INTO seller_daily_sales (seller_id, sales_date, revenue, units_sold, order_count) " +
+                    "VALUES (?, ?, ?, ?, ?)");
+    private static final Upsert STATUS_COUNTS = new Upsert(
+            "UPDATE seller_status_counts SET order_count = order_count + ? WHERE seller_id = ? AND status = ?",
+            "INSERT INTO seller_status_counts (seller_id, status, order_count) VALUES (?, ?, ?)");
+
+    // Orders whose creation event is still queued are counted when it is dispatched
+    private static final String NOT_PENDING_CREATION =
+            "NOT EXISTS (SELECT 1 FROM outbox_events e WHERE e.aggregate_id = o.id " +
+                    "AND e.event_type = '" + OrderCreatedEvent.class.getSimpleName() + "' " +
+                    "AND e.processed_at IS NULL AND e.attempts < ?)";
+
+    private static final String[] BACKFILL_SQL = {
+            "INSERT INTO seller_sales (seller_id, revenue, units_sold) " +
+                    "SELECT oi.seller_id, SUM(COALESCE(oi.price, 0) * oi.quantity), SUM(oi.quantity) " +
+                    "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "WHERE o.status <> '" + OrderStatus.CANCELLED.getValue() + "' AND " + NOT_PENDING_CREATION + " " +
+                    "GROUP BY oi.seller_id",
+            "INSERT INTO seller_product_sales (seller_id, product_id, revenue, units_sold) " +
+                    "SELECT oi.seller_id, oi.product_id, SUM(COALESCE(oi.price, 0) * oi.quantity), SUM(oi.quantity) " +
+                    "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "WHERE o.status <> '" + OrderStatus.CANCELLED.getValue() + "' AND " + NOT_PENDING_CREATION + " " +
+                    "GROUP BY oi.seller_id, oi.product_id",
+            "INSERT INTO seller_daily_sales (seller_id, sales_date, revenue, units_sold, order_count) " +
+                    "SELECT oi.seller_id, CAST(o.created_at AT TIME ZONE 'UTC' AS DATE), " +
+                    "SUM(COALESCE(oi.price, 0) * oi.quantity), SUM(oi.quantity), COUNT(DISTINCT o.id) " +
+                    "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "WHERE o.status <> '" + OrderStatus.CANCELLED.getValue() + "' AND " + NOT_PENDING_CREATION + " " +
+                    "GROUP BY oi.seller_id, CAST(o.created_at AT TIME ZONE 'UTC' AS DATE)",
+            "INSERT INTO seller_status_counts (seller_id, status, order_count) " +
+                    "SELECT oi.seller_id, o.status, COUNT(DISTINCT o.id) " +
+                    "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "WHERE " + NOT_PENDING_CREATION + " " +
+                    "GROUP BY oi.seller_id, o.status"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final SellerSalesRepository sellerSalesRepository;
+    private final SellerProductSalesRepository sellerProductSalesRepository;
+    private final SellerDailySalesRepository sellerDailySalesRepository;
+    private final SellerStatusCountRepository sellerStatusCountRepository;
+    private final int maxOutboxAttempts;
+
+    public SellerAnalyticsService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  SellerSalesRepository sellerSalesRepository,
+                                  SellerProductSalesRepository sellerProductSalesRepository,
+                                  SellerDailySalesRepository sellerDailySalesRepository,
+                                  SellerStatusCountRepository sellerStatusCountRepository,
+                                  @Value("${app.outbox.max-attempts:10}") int maxOutboxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.sellerSalesRepository = sellerSalesRepository;
+        this.sellerProductSalesRepository = sellerProductSalesRepository;
+        this.sellerDailySalesRepository = sellerDailySalesRepository;
+        this.sellerStatusCountRepository = sellerStatusCountRepository;
+        this.maxOutboxAttempts = maxOutboxAttempts;
+    }
+
+    @EventListener
+    @Transactional
+    public void recordOrderCreated(OrderCreatedEvent event) {
+        Map<Long, SellerDelta> deltas = aggregate(event.lines());
+        if (OrderStatus.from(event.status()) != OrderStatus.CANCELLED) {
+            applySales(deltas, salesDate(event.orderCreatedAt()), 1);
+        }
+        applyStatusCounts(deltas.keySet(), event.status(), 1);
+    }
+
+    @EventListener
+    @Transactional
+    public void recordStatusChange(OrderStatusChangedEvent event) {
+        if (Objects.equals(event.previousStatus(), event.newStatus())) {
+            return;
+        }
+        Map<Long, SellerDelta> deltas = aggregate(event.lines());
+        boolean wasCounted = OrderStatus.from(event.previousStatus()) != OrderStatus.CANCELLED;
+        boolean isCounted = OrderStatus.from(event.newStatus()) != OrderStatus.CANCELLED;
+        if (wasCounted != isCounted) {
+            applySales(deltas, salesDate(event.orderCreatedAt()), isCounted ? 1 : -1);
+        }
+        applyStatusCounts(deltas.keySet(), event.previousStatus(), -1);
+        applyStatusCounts(deltas.keySet(), event.newStatus(), 1);
+    }
+
+    @Transactional(readOnly = true)
+    public SellerAnalytics getAnalytics(Long sellerId, LocalDate from, LocalDate to, int topProducts) {
+        Optional<SellerSales> totals = sellerSalesRepository.findById(sellerId);
+
+        Map<String, Long> ordersByStatus = new TreeMap<>();
+        for (SellerStatusCount count : sellerStatusCountRepository.findBySellerId(sellerId)) {
+            if (count.getOrderCount() > 0) {
+                ordersByStatus.put(count.getStatus(), count.getOrderCount());
+            }
+        }
+
+        List<SellerAnalytics.ProductSales> products = new ArrayList<>(topProducts);
+        for (SellerProductSales sales : sellerProductSalesRepository
+                .findBySellerIdOrderByRevenueDesc(sellerId, PageRequest.of(0, topProducts))) {
+            products.add(new SellerAnalytics.ProductSales(
+                    sales.getProductId(), sales.getRevenue(), sales.getUnitsSold()));
+        }
+
+        List<SellerAnalytics.DailySales> daily = new ArrayList<>();
+        for (SellerDailySales sales : sellerDailySalesRepository
+                .findBySellerIdAndSalesDateBetweenOrderBySalesDateAsc(sellerId, from, to)) {
+            daily.add(new SellerAnalytics.DailySales(
+                    sales.getSalesDate(), sales.getRevenue(), sales.getUnitsSold(), sales.getOrderCount()));
+        }
+
+        return new SellerAnalytics(
+                sellerId,
+                totals.map(SellerSales::getRevenue).orElse(0.0),
+                totals.map(SellerSales::getUnitsSold).orElse(0L),
+                ordersByStatus,
+                products,
+                daily);
+    }
+
+    /**
+     * Builds the aggregates from existing orders the first time the tables
+     * are empty, e.g. right after they were introduced. Runs before the web
+     * server and the outbox poller start, so no order event is applied while
+     * the backfill reads the orders it already covers.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transaction.executeWithoutResult(status -> {
+                Boolean populated = jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM seller_status_counts)", Boolean.class);
+                if (Boolean.TRUE.equals(populated)) {
+                    return;
+                }
+                for (String sql : BACKFILL_SQL) {
+                    jdbcTemplate.update(sql, maxOutboxAttempts);
+                }
+            });
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Could not backfill seller analytics", e);
+        }
+    }
+
+    private void applySales(Map<Long, SellerDelta> deltas, LocalDate salesDate, int sign) {
+        List<Object[]> salesDeltas = new ArrayList<>();
+        List<Object[]> salesKeys = new ArrayList<>();
+        List<Object[]> productDeltas = new ArrayList<>();
+        List<Object[]> productKeys = new ArrayList<>();
+        List<Object[]> dailyDeltas = new ArrayList<>();
+        List<Object[]> dailyKeys = new ArrayList<>();
+
+        deltas.forEach((sellerId, delta) -> {
+            salesDeltas.add(new Object[]{sign * delta.revenue, sign * delta.units});
+            salesKeys.add(new Object[]{sellerId});
+            dailyDeltas.add(new Object[]{sign * delta.revenue, sign * delta.units, (long) sign});
+            dailyKeys.add(new Object[]{sellerId, salesDate});
+            delta.products.forEach((productId, product) -> {
+                productDeltas.add(new Object[]{sign * product.revenue, sign * product.units});
+                productKeys.add(new Object[]{sellerId, productId});
+            });
+        });
+
+        upsert(SALES, salesDeltas, salesKeys);
+        upsert(PRODUCT_SALES, productDeltas, productKeys);
+        upsert(DAILY_SALES, dailyDeltas, dailyKeys);
+    }
+
+    private void applyStatusCounts(Set<Long> sellerIds, String status, long delta) {
+        List<Object[]> deltas = new ArrayList<>(sellerIds.size());
+        List<Object[]> keys = new ArrayList<>(sellerIds.size());
+        for (Long sellerId : sellerIds) {
+            deltas.add(new Object[]{delta});
+            keys.add(new Object[]{sellerId, status});
+        }
+        upsert(STATUS_COUNTS, deltas, keys);
+    }
+
+    private Map<Long, SellerDelta> aggregate(List<OrderEventLine> lines) {
+        // Sorted so concurrent orders touch aggregate rows in the same order
+        Map<Long, SellerDelta> deltas = new TreeMap<>();
+        for (OrderEventLine line : lines) {
+            if (line.sellerId() == null) {
+                continue;
+            }
+            double revenue = line.price() != null ? line.price() * line.quantity() : 0.0;
+            SellerDelta seller = deltas.computeIfAbsent(line.sellerId(), id -> new SellerDelta());
+            seller.add(revenue, line.quantity());
+            seller.products.computeIfAbsent(line.productId(), id -> new ProductDelta())
+                    .add(revenue, line.quantity());
+        }
+        return deltas;
+    }
+
+    private LocalDate salesDate(Instant orderCreatedAt) {
+        return LocalDate.ofInstant(orderCreatedAt, ZoneOffset.UTC);
+    }
+
+    private void upsert(Upsert upsert, List<Object[]> deltas, List<Object[]> keys) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        for (int i = 0; i < deltas.size(); i++) {
+            updates.add(concat(deltas.get(i), keys.get(i)));
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(upsert.updateSql(), updates);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                if (!insertWithSavepoint(upsert.insertSql(), concat(keys.get(i), deltas.get(i)))) {
+                    jdbcTemplate.update(upsert.updateSql(), updates.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false if the row already exists, in which case the surrounding
+     * transaction is left as it was before the attempt
+     */
+    private boolean insertWithSavepoint(String sql, Object[] args) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                new ArgumentPreparedStatementSetter(args).setValues(statement);
+                statement.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    return false;
+                }
+                throw e;
+            }
+        }));
+    }
+
+    private static Object[] concat(Object[] first, Object[] second) {
+        Object[] values = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, values, first.length, second.length);
+        return values;
+    }
+
+    /**
+     * A relative UPDATE taking (deltas..., keys...) and the matching INSERT
+     * taking (keys..., deltas...).
+     */
+    private record Upsert(String updateSql, String insertSql) {
+    }
+
+    private static class ProductDelta {
+        double revenue;
+        long units;
+
+        void add(double revenue, int units) {
+            this.revenue += revenue;
+            this.units += units;
+        }
+    }
+
+    private static class SellerDelta extends ProductDelta {
+        final Map<Long, ProductDelta> products = new TreeMap<>();
+    }
+}
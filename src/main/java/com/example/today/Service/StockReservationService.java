@@ -0,0 +1,73 @@
+package com.example.today.Service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reserves and releases product stock with conditional atomic updates instead
+ * of read-modify-write on the entity. All lines go to the database as one JDBC
+ * batch; if any line cannot be satisfied the whole transaction rolls back, so
+ * no partial reservation survives.
+ */
+@Service
+public class StockReservationService {
+    private static final String RESERVE_SQL =
+            "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String RELEASE_SQL =
+            "UPDATE products SET stock = stock + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductCache productCache;
+
+    public StockReservationService(JdbcTemplate jdbcTemplate, ProductCache productCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productCache = productCache;
+    }
+
+    /**
+     * @param quantities product id to quantity; ids may not repeat
+     */
+    @Transactional
+    public void reserve(Map<String, Integer> quantities) {
+        // Lock rows in a fixed order so concurrent checkouts cannot deadlock
+        List<String> productIds = new ArrayList<>(new TreeMap<>(quantities).keySet());
+        List<Object[]> batch = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            int quantity = quantities.get(productId);
+            if (quantity <= 0) {
+                throw new RuntimeException("Invalid quantity for product: " + productId);
+            }
+            batch.add(new Object[]{quantity, productId, quantity});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, batch);
+        productIds.forEach(productCache::evict);
+
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                String productId = productIds.get(i);
+                String name = productCache.get(productId)
+                        .map(ProductCache.CachedProduct::name)
+                        .orElse(productId);
+                throw new RuntimeException("Insufficient stock for product: " + name);
+            }
+        }
+    }
+
+    @Transactional
+    public void release(Map<String, Integer> quantities) {
+        List<String> productIds = new ArrayList<>(new TreeMap<>(quantities).keySet());
+        List<Object[]> batch = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            batch.add(new Object[]{quantities.get(productId), productId});
+        }
+        jdbcTemplate.batchUpdate(RELEASE_SQL, batch);
+        productIds.forEach(productCache::evict);
+    }
+}
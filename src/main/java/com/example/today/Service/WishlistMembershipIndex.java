@@ -0,0 +1,124 @@
+package com.example.today.Service;
+
+import com.example.today.Repository.WishlistRepository;
+import com.example.today.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Per-user set of wishlisted product ids, kept in memory so product listings
+ * can mark wishlisted products without reading the wishlist. Numeric ids are
+ * held in a compressed bitmap; any other id falls back to a plain set.
+ *
+ * <p>A user's entry is loaded with one query on first use and afterwards
+ * patched when wishlist changes commit. Entries are immutable snapshots that
+ * are replaced on change, so readers never lock. Other instances only see a
+ * change once their entry expires, which bounds how stale a listing can be.
+ */
+@Component
+public class WishlistMembershipIndex {
+    private final WishlistRepository wishlistRepository;
+    private final Cache<Long, Membership> cache;
+
+    public WishlistMembershipIndex(WishlistRepository wishlistRepository,
+                                   @Value("${app.wishlist.membership.maximum-size:100000}") long maximumSize,
+                                   @Value("${app.wishlist.membership.ttl:10m}") Duration ttl) {
+        this.wishlistRepository = wishlistRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /** The subset of the given product ids that are in the user's wishlist, in request order. */
+    public List<String> wishlisted(Long userId, Collection<String> productIds) {
+        Membership membership = cache.get(userId, this::load);
+        List<String> result = new ArrayList<>();
+        for (String productId : productIds) {
+            if (membership.contains(productId)) {
+                result.add(productId);
+            }
+        }
+        return result;
+    }
+
+    /** Applies the change once the surrounding transaction commits. */
+    public void added(Long userId, Collection<String> productIds) {
+        TransactionHooks.afterCommit(() ->
+                cache.asMap().computeIfPresent(userId, (id, membership) -> membership.with(productIds)));
+    }
+
+    /** Applies the change once the surrounding transaction commits. */
+    public void removed(Long userId, Collection<String> productIds) {
+        TransactionHooks.afterCommit(() ->
+                cache.asMap().computeIfPresent(userId, (id, membership) -> membership.without(productIds)));
+    }
+
+    private Membership load(Long userId) {
+        return Membership.EMPTY.with(wishlistRepository.findProductIdsByUserId(userId));
+    }
+
+    /**
+     * Canonical decimal ids that fit in an int ("42", not "042" or "+42"),
+     * so that every id has exactly one bitmap position; -1 otherwise.
+     */
+    static int bitmapPosition(String productId) {
+        int length = productId.length();
+        if (length == 0 || length > 10 || (length > 1 && productId.charAt(0) == '0')) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = productId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+
+    private record Membership(RoaringBitmap numericIds, Set<String> otherIds) {
+        static final Membership EMPTY = new Membership(new RoaringBitmap(), Set.of());
+
+        boolean contains(String productId) {
+            int position = bitmapPosition(productId);
+            return position >= 0 ? numericIds.contains(position) : otherIds.contains(productId);
+        }
+
+        Membership with(Collection<String> productIds) {
+            RoaringBitmap numeric = numericIds.clone();
+            Set<String> other = new HashSet<>(otherIds);
+            for (String productId : productIds) {
+                int position = bitmapPosition(productId);
+                if (position >= 0) {
+                    numeric.add(position);
+                } else {
+                    other.add(productId);
+                }
+            }
+            numeric.runOptimize();
+            return new Membership(numeric, Set.copyOf(other));
+        }
+
+        Membership without(Collection<String> productIds) {
+            RoaringBitmap numeric = numericIds.clone();
+            Set<String> other = new HashSet<>(otherIds);
+            for (String productId : productIds) {
+                int position = bitmapPosition(productId);
+                if (position >= 0) {
+                    numeric.remove(position);
+                } else {
+                    other.remove(productId);
+                }
+            }
+            return new Membership(numeric, Set.copyOf(other));
+        }
+    }
+}
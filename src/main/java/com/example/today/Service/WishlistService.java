@@ -1,27 +1,44 @@
 package com.example.today.Service;
 
-import com.example.today.Model.Product;
 import com.example.today.Model.WishlistItem;
 import com.example.today.Repository.ProductRepository;
 import com.example.today.Repository.WishlistRepository;
+import com.example.today.dto.WishlistLine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class WishlistService {
     private final WishlistRepository wishlistRepository;
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final WishlistMembershipIndex membershipIndex;
+    private final ProductPopularityService productPopularityService;
+
+    @Value("${app.wishlist.bulk.max-size:100}")
+    private int maxBulkSize;
+
+    @Value("${app.wishlist.membership.max-query-size:500}")
+    private int maxMembershipQuerySize;
 
     @Autowired
     public WishlistService(WishlistRepository wishlistRepository,
-                           ProductRepository productRepository) {
+                           ProductRepository productRepository,
+                           ProductCache productCache,
+                           WishlistMembershipIndex membershipIndex,
+                           ProductPopularityService productPopularityService) {
         this.wishlistRepository = wishlistRepository;
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.membershipIndex = membershipIndex;
+        this.productPopularityService = productPopularityService;
     }
 
     @Transactional
@@ -33,24 +50,104 @@ public class WishlistService {
         }
 
         // Get product
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        productCache.getRequired(productId);
 
         // Create new wishlist item
         WishlistItem newItem = new WishlistItem();
         newItem.setUserId(userId);
-        newItem.setProduct(product);
+        newItem.setProduct(productRepository.getReferenceById(productId));
         newItem.setCreatedAt(Instant.now());
 
-        return wishlistRepository.save(newItem);
+        WishlistItem saved = wishlistRepository.save(newItem);
+        membershipIndex.added(userId, List.of(productId));
+        productPopularityService.wishlistAdded(List.of(productId));
+        return saved;
     }
 
-    public List<WishlistItem> getWishlist(Long userId) {
-        return wishlistRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public Slice<WishlistLine> getWishlistPage(Long userId, int page, int size) {
+        return wishlistRepository.findLinesByUserId(userId, PageRequest.of(page, size));
+    }
+
+    /**
+     * Adds every product id that exists and is not already wishlisted, using
+     * one lookup for existing entries and one for the products themselves.
+     */
+    @Transactional
+    public BulkAddResult addItemsToWishlist(Long userId, Collection<String> productIds) {
+        Set<String> requested = new LinkedHashSet<>(productIds);
+        if (requested.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " products per request");
+        }
+        if (requested.isEmpty()) {
+            return new BulkAddResult(List.of(), List.of(), List.of());
+        }
+
+        Set<String> alreadyPresent = new HashSet<>(
+                wishlistRepository.findProductIdsByUserIdAndProductIdIn(userId, requested));
+        Set<String> existing = new HashSet<>(productRepository.findExistingIds(requested));
+
+        List<String> added = new ArrayList<>();
+        List<String> present = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        List<WishlistItem> newItems = new ArrayList<>();
+        Instant now = Instant.now();
+        for (String productId : requested) {
+            if (alreadyPresent.contains(productId)) {
+                present.add(productId);
+            } else if (!existing.contains(productId)) {
+                notFound.add(productId);
+            } else {
+                WishlistItem item = new WishlistItem();
+                item.setUserId(userId);
+                item.setProduct(productRepository.getReferenceById(productId));
+                item.setCreatedAt(now);
+                newItems.add(item);
+                added.add(productId);
+            }
+        }
+        wishlistRepository.saveAll(newItems);
+        membershipIndex.added(userId, added);
+        productPopularityService.wishlistAdded(added);
+        return new BulkAddResult(added, present, notFound);
     }
 
     @Transactional
     public void removeItemFromWishlist(Long userId, Long productId) {
-        wishlistRepository.deleteByUserIdAndProductId(userId, String.valueOf(productId));
+        List<String> removed = List.of(String.valueOf(productId));
+        if (wishlistRepository.deleteByUserIdAndProductId(userId, removed.get(0)) > 0) {
+            membershipIndex.removed(userId, removed);
+            productPopularityService.wishlistRemoved(removed);
+        }
+    }
+
+    public List<String> getWishlistedProductIds(Long userId, Collection<String> productIds) {
+        if (productIds.size() > maxMembershipQuerySize) {
+            throw new IllegalArgumentException("At most " + maxMembershipQuerySize + " products per request");
+        }
+        return membershipIndex.wishlisted(userId, productIds);
+    }
+
+    @Transactional
+    public int removeItemsFromWishlist(Long userId, Collection<String> productIds) {
+        Set<String> requested = new LinkedHashSet<>(productIds);
+        if (requested.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " products per request");
+        }
+        if (requested.isEmpty()) {
+            return 0;
+        }
+        // Only entries that existed count against product popularity
+        List<String> present = wishlistRepository.findProductIdsByUserIdAndProductIdIn(userId, requested);
+        if (present.isEmpty()) {
+            return 0;
+        }
+        int removed = wishlistRepository.deleteByUserIdAndProductIdIn(userId, present);
+        membershipIndex.removed(userId, present);
+        productPopularityService.wishlistRemoved(present);
+        return removed;
+    }
+
+    public record BulkAddResult(List<String> added, List<String> alreadyPresent, List<String> notFound) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.today.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImageConfig {
+
+    /**
+     * Generates image thumbnails off the request thread. Resizing is CPU
+     * bound, so the pool stays small and the queue bounded; work that does not
+     * fit is dropped and picked up again the next time that size is requested.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageExecutor(
+            @Value("${app.images.workers:2}") int workers,
+            @Value("${app.images.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("images-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
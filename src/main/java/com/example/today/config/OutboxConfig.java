@@ -0,0 +1,40 @@
+package com.example.today.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    /**
+     * Runs order event listeners off the request thread. The queue is bounded:
+     * when it is full the event is left to the outbox poller instead of
+     * blocking or failing the request that produced it. With virtual threads
+     * enabled the workers are virtual, but the pool and queue still bound how
+     * many listeners compete for database connections.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor orderEventExecutor(
+            Environment environment,
+            @Value("${app.outbox.dispatcher.threads:4}") int threads,
+            @Value("${app.outbox.dispatcher.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("order-events-").getVirtualThreadFactory());
+        }
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-events-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -2,7 +2,10 @@ package com.example.today.config;
 
 import com.example.today.security.JwtAuthenticationFilter;
 import com.example.today.security.JwtTokenProvider;
-import com.example.today.security.CustomUserDetailsService;
+import com.example.today.security.PrincipalCache;
+import com.example.today.security.UserPrincipal;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -28,12 +31,15 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class SecurityConfig {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final boolean statelessPrincipal;
 
     public SecurityConfig(JwtTokenProvider jwtTokenProvider,
-                          CustomUserDetailsService userDetailsService) {
+                          PrincipalCache principalCache,
+                          @Value("${app.jwt.stateless-principal:false}") boolean statelessPrincipal) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Bean
@@ -42,8 +48,12 @@ public class SecurityConfig {
                 .cors(withDefaults()) // Enable CORS with default configuration
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses finish on an async dispatch of an already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/api/admin/**").hasAuthority(UserPrincipal.ADMIN_ROLE)
                         .requestMatchers("/api/products/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
                         .requestMatchers("/api/cart/**").authenticated()
                         .requestMatchers("/api/wishlist/**").authenticated()
                         .requestMatchers("/api/orders/**").authenticated()
@@ -69,7 +79,7 @@ public class SecurityConfig {
     }
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService);
+        return new JwtAuthenticationFilter(jwtTokenProvider, principalCache, statelessPrincipal);
     }
 
     @Bean
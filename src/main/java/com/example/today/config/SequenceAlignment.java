@@ -0,0 +1,61 @@
+package com.example.today.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Orders and order items moved from identity columns to pooled sequences.
+ * On databases that already hold rows, the freshly created sequences start
+ * at 1, so they are advanced past the current maximum id before any insert.
+ * Depends on the EntityManagerFactory so the schema update has already run.
+ */
+@Component
+public class SequenceAlignment {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceAlignment.class);
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public SequenceAlignment(JdbcTemplate jdbcTemplate,
+                             DataSource dataSource,
+                             EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void alignSequences() throws SQLException {
+        if (!isPostgres()) {
+            return;
+        }
+        SEQUENCES.forEach((sequence, table) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+            if (maxId != null && lastValue != null && lastValue < maxId) {
+                jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), ?)", Long.class, sequence, maxId);
+                logger.info("Advanced {} from {} to {}", sequence, lastValue, maxId);
+            }
+        });
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.today.dto;
+
+import com.example.today.Model.CartItem;
+import com.example.today.Model.Product;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * One line of a cart as returned by the cart endpoints.
+ */
+public record CartItemResponse(
+        Long id,
+        int quantity,
+        @JsonProperty("selected_color") String selectedColor,
+        @JsonProperty("unit_price") Double unitPrice,
+        @JsonProperty("added_at") Instant addedAt,
+        @JsonProperty("updated_at") Instant updatedAt,
+        ProductInfo product) {
+
+    public static CartItemResponse of(CartItem item) {
+        return new CartItemResponse(
+                item.getId(),
+                item.getQuantity(),
+                item.getSelectedColor(),
+                item.getUnitPrice(),
+                item.getAddedAt(),
+                item.getUpdatedAt(),
+                ProductInfo.of(item.getProduct()));
+    }
+
+    public record ProductInfo(
+            String id,
+            String name,
+            String description,
+            Double price,
+            @JsonProperty("image_url") String imageUrl,
+            Integer stock,
+            String category,
+            String brand) {
+
+        static ProductInfo of(Product product) {
+            return new ProductInfo(
+                    product.getId(),
+                    product.getName(),
+                    product.getDescription(),
+                    product.getPrice(),
+                    product.getImage(),
+                    product.getStock(),
+                    product.getCategory(),
+                    product.getBrand());
+        }
+    }
+}
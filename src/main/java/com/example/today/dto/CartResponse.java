@@ -0,0 +1,34 @@
+package com.example.today.dto;
+
+import com.example.today.Model.Cart;
+import com.example.today.Model.CartItem;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public record CartResponse(
+        Long id,
+        @JsonProperty("user_id") Long userId,
+        @JsonProperty("total_items") Integer totalItems,
+        Double subtotal,
+        @JsonProperty("created_at") Instant createdAt,
+        @JsonProperty("updated_at") Instant updatedAt,
+        List<CartItemResponse> items) {
+
+    public static CartResponse of(Cart cart) {
+        List<CartItemResponse> items = new ArrayList<>(cart.getItems().size());
+        for (CartItem item : cart.getItems()) {
+            items.add(CartItemResponse.of(item));
+        }
+        return new CartResponse(
+                cart.getId(),
+                cart.getUserId(),
+                cart.getTotalItems(),
+                cart.getSubtotal(),
+                cart.getCreatedAt(),
+                cart.getUpdatedAt(),
+                items);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.today.dto;
+
+import com.example.today.Service.CartService;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record CartValidationResponse(boolean valid, List<Issue> issues) {
+
+    public static CartValidationResponse of(CartService.CartValidationResult result) {
+        List<CartService.CartIssue> source = result.getIssues() != null ? result.getIssues() : List.of();
+        List<Issue> issues = new ArrayList<>(source.size());
+        for (CartService.CartIssue issue : source) {
+            issues.add(new Issue(issue.getIssueType(), issue.getMessage(), CartItemResponse.of(issue.getItem())));
+        }
+        return new CartValidationResponse(result.isValid(), issues);
+    }
+
+    public record Issue(
+            @JsonProperty("issue_type") String issueType,
+            String message,
+            @JsonProperty("cart_item") CartItemResponse cartItem) {
+    }
+}
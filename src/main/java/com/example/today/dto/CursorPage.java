@@ -0,0 +1,11 @@
+package com.example.today.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> items,
+        @JsonProperty("next_cursor") String nextCursor,
+        @JsonProperty("has_more") boolean hasMore) {
+}
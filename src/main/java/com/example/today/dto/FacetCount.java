@@ -0,0 +1,4 @@
+package com.example.today.dto;
+
+public record FacetCount(String value, long count) {
+}
@@ -0,0 +1,38 @@
+package com.example.today.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page ordered by (createdAt, id). Encoded as an
+ * opaque URL-safe token so clients cannot depend on its contents.
+ */
+public record KeysetCursor(Instant createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = (createdAt == null ? "" : createdAt.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        String raw;
+        Instant createdAt;
+        int separator;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            separator = raw.indexOf(SEPARATOR);
+            createdAt = separator <= 0 ? null : Instant.parse(raw.substring(0, separator));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (separator < 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new KeysetCursor(createdAt, raw.substring(separator + 1));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.today.dto;
+
+import com.example.today.Model.OrderStatus;
+
+import java.time.Instant;
+
+/**
+ * Flat order/order-line row read by the order export. The line fields are
+ * null for an order without lines.
+ */
+public record OrderExportRow(
+        Long orderId,
+        Long userId,
+        Double totalPrice,
+        String shippingAddress,
+        String paymentMethod,
+        OrderStatus status,
+        Instant createdAt,
+        Long itemId,
+        Long productId,
+        Long sellerId,
+        Integer quantity,
+        Double price,
+        String image,
+        String name) {
+}
@@ -0,0 +1,25 @@
+package com.example.today.dto;
+
+import com.example.today.Model.OrderItem;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record OrderLineResponse(
+        Long id,
+        @JsonProperty("product_id") Long productId,
+        @JsonProperty("seller_id") Long sellerId,
+        int quantity,
+        Double price,
+        String image,
+        String name) {
+
+    public static OrderLineResponse of(OrderItem item) {
+        return new OrderLineResponse(
+                item.getId(),
+                item.getProductId(),
+                item.getSellerId(),
+                item.getQuantity(),
+                item.getPrice(),
+                item.getImage(),
+                item.getName());
+    }
+}
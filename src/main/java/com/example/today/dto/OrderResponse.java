@@ -0,0 +1,36 @@
+package com.example.today.dto;
+
+import com.example.today.Model.Order;
+import com.example.today.Model.OrderItem;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public record OrderResponse(
+        Long id,
+        @JsonProperty("user_id") Long userId,
+        @JsonProperty("total_price") Double totalPrice,
+        @JsonProperty("shipping_address") String shippingAddress,
+        @JsonProperty("payment_method") String paymentMethod,
+        String status,
+        @JsonProperty("created_at") Instant createdAt,
+        @JsonProperty("order_items") List<OrderLineResponse> orderItems) {
+
+    public static OrderResponse of(Order order) {
+        List<OrderLineResponse> lines = new ArrayList<>(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            lines.add(OrderLineResponse.of(item));
+        }
+        return new OrderResponse(
+                order.getId(),
+                order.getUserId(),
+                order.getTotalPrice(),
+                order.getShippingAddress(),
+                order.getPaymentMethod(),
+                order.getStatus().getValue(),
+                order.getCreatedAt(),
+                lines);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.today.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Entry of a popularity rail: listing fields of the product plus the value
+ * it was ranked by (trending score or wishlist count).
+ */
+public record PopularProduct(
+        @JsonProperty("product_id") String productId,
+        String name,
+        Double price,
+        Integer discount,
+        String image,
+        String category,
+        double score) {
+}
@@ -0,0 +1,4 @@
+package com.example.today.dto;
+
+public record ProductAvailability(String productId, Integer stock, Double price) {
+}
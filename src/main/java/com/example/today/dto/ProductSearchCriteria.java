@@ -0,0 +1,55 @@
+package com.example.today.dto;
+
+import java.util.List;
+
+public record ProductSearchCriteria(
+        List<String> categories,
+        List<String> brands,
+        Double minPrice,
+        Double maxPrice,
+        Integer minDiscount,
+        Double minRating,
+        boolean inStockOnly,
+        SortField sort,
+        boolean ascending,
+        int page,
+        int size) {
+
+    public ProductSearchCriteria {
+        // Computed as a long so a huge page is a bad request, not an overflowed offset
+        if ((long) page * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page " + page + " is out of range");
+        }
+    }
+
+    public int offset() {
+        return page * size;
+    }
+
+    public enum SortField {
+        NEWEST("createdAt"),
+        PRICE("price"),
+        DISCOUNT("discount"),
+        RATING("rating"),
+        STOCK("stock");
+
+        private final String attribute;
+
+        SortField(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String getAttribute() { return attribute; }
+
+        public static SortField from(String value) {
+            if (value == null || value.isBlank()) {
+                return NEWEST;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported sort field: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.today.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record ProductSearchResult(
+        List<ProductSummary> items,
+        int page,
+        int size,
+        long total,
+        Map<String, List<FacetCount>> facets) {
+}
@@ -0,0 +1,4 @@
+package com.example.today.dto;
+
+public record ProductSuggestion(String id, String name, double score) {
+}
@@ -0,0 +1,18 @@
+package com.example.today.dto;
+
+/**
+ * Listing-sized view of a product, without descriptions, image galleries or
+ * specifications.
+ */
+public record ProductSummary(
+        String id,
+        String name,
+        Double price,
+        Integer discount,
+        String image,
+        String category,
+        String brand,
+        Double rating,
+        Integer reviews,
+        Integer stock) {
+}
@@ -0,0 +1,33 @@
+package com.example.today.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed sales figures of a seller. Revenue and units exclude cancelled
+ * orders; {@code ordersByStatus} counts every order by its current status.
+ */
+public record SellerAnalytics(
+        @JsonProperty("seller_id") Long sellerId,
+        double revenue,
+        @JsonProperty("units_sold") long unitsSold,
+        @JsonProperty("orders_by_status") Map<String, Long> ordersByStatus,
+        @JsonProperty("top_products") List<ProductSales> topProducts,
+        List<DailySales> daily) {
+
+    public record ProductSales(
+            @JsonProperty("product_id") Long productId,
+            double revenue,
+            @JsonProperty("units_sold") long unitsSold) {
+    }
+
+    public record DailySales(
+            LocalDate date,
+            double revenue,
+            @JsonProperty("units_sold") long unitsSold,
+            @JsonProperty("order_count") long orderCount) {
+    }
+}
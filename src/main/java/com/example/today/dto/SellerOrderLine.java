@@ -0,0 +1,21 @@
+package com.example.today.dto;
+
+import com.example.today.Model.OrderStatus;
+
+import java.time.Instant;
+
+/**
+ * One order line of a seller's feed, joined with its order and the current
+ * product name/image (falling back to the values captured at checkout).
+ */
+public record SellerOrderLine(
+        Long orderId,
+        OrderStatus orderStatus,
+        Long productId,
+        int quantity,
+        Double price,
+        Instant orderDate,
+        String productName,
+        String productImage,
+        String shippingAddress) {
+}
@@ -0,0 +1,38 @@
+package com.example.today.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Response shape of a {@link SellerOrderLine}, nesting the product and
+ * customer fields the way the seller feed has always returned them.
+ */
+public record SellerOrderLineResponse(
+        @JsonProperty("order_id") Long orderId,
+        @JsonProperty("order_status") String orderStatus,
+        @JsonProperty("product_id") Long productId,
+        int quantity,
+        Double price,
+        @JsonProperty("order_date") Instant orderDate,
+        ProductInfo product,
+        @JsonProperty("customer_info") CustomerInfo customerInfo) {
+
+    public static SellerOrderLineResponse of(SellerOrderLine line) {
+        return new SellerOrderLineResponse(
+                line.orderId(),
+                line.orderStatus().getValue(),
+                line.productId(),
+                line.quantity(),
+                line.price(),
+                line.orderDate(),
+                new ProductInfo(line.productName(), line.productImage()),
+                new CustomerInfo(line.shippingAddress()));
+    }
+
+    public record ProductInfo(String name, String image) {
+    }
+
+    public record CustomerInfo(@JsonProperty("shipping_address") String shippingAddress) {
+    }
+}
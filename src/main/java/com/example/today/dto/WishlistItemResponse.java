@@ -0,0 +1,71 @@
+package com.example.today.dto;
+
+import com.example.today.Model.Product;
+import com.example.today.Model.WishlistItem;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+public record WishlistItemResponse(
+        Long id,
+        @JsonProperty("user_id") Long userId,
+        @JsonProperty("product_id") String productId,
+        @JsonProperty("created_at") Instant createdAt,
+        ProductInfo product) {
+
+    public static WishlistItemResponse of(WishlistItem item) {
+        Product product = item.getProduct();
+        return new WishlistItemResponse(
+                item.getId(),
+                item.getUserId(),
+                product.getId(),
+                item.getCreatedAt(),
+                ProductInfo.of(product));
+    }
+
+    public static WishlistItemResponse of(WishlistLine line) {
+        return new WishlistItemResponse(
+                line.id(),
+                line.userId(),
+                line.productId(),
+                line.createdAt(),
+                new ProductInfo(
+                        line.productId(),
+                        line.name(),
+                        line.description(),
+                        line.price(),
+                        line.discount(),
+                        line.image(),
+                        line.category(),
+                        line.brand(),
+                        line.rating(),
+                        line.stock()));
+    }
+
+    public record ProductInfo(
+            String id,
+            String name,
+            String description,
+            Double price,
+            Integer discount,
+            String image,
+            String category,
+            String brand,
+            Double rating,
+            Integer stock) {
+
+        static ProductInfo of(Product product) {
+            return new ProductInfo(
+                    product.getId(),
+                    product.getName(),
+                    product.getDescription(),
+                    product.getPrice(),
+                    product.getDiscount(),
+                    product.getImage(),
+                    product.getCategory(),
+                    product.getBrand(),
+                    product.getRating(),
+                    product.getStock());
+        }
+    }
+}
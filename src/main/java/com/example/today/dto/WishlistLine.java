@@ -0,0 +1,23 @@
+package com.example.today.dto;
+
+import java.time.Instant;
+
+/**
+ * One wishlist entry joined with the product fields shown in the wishlist,
+ * read in a single query instead of loading each product entity.
+ */
+public record WishlistLine(
+        Long id,
+        Long userId,
+        Instant createdAt,
+        String productId,
+        String name,
+        String description,
+        Double price,
+        Integer discount,
+        String image,
+        String category,
+        String brand,
+        Double rating,
+        Integer stock) {
+}
@@ -0,0 +1,23 @@
+package com.example.today.event;
+
+import com.example.today.Model.Order;
+
+import java.time.Instant;
+import java.util.List;
+
+public record OrderCreatedEvent(
+        Long orderId,
+        Long userId,
+        String status,
+        Instant orderCreatedAt,
+        List<OrderEventLine> lines) {
+
+    public static OrderCreatedEvent of(Order order) {
+        return new OrderCreatedEvent(
+                order.getId(),
+                order.getUserId(),
+                order.getStatus().getValue(),
+                order.getCreatedAt(),
+                order.getOrderItems().stream().map(OrderEventLine::of).toList());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.today.event;
+
+import com.example.today.Model.OrderItem;
+
+public record OrderEventLine(Long productId, Long sellerId, int quantity, Double price) {
+
+    public static OrderEventLine of(OrderItem item) {
+        return new OrderEventLine(item.getProductId(), item.getSellerId(), item.getQuantity(), item.getPrice());
+    }
+}
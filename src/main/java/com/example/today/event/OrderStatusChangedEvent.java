@@ -0,0 +1,27 @@
+package com.example.today.event;
+
+import com.example.today.Model.Order;
+import com.example.today.Model.OrderStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+public record OrderStatusChangedEvent(
+        Long orderId,
+        Long userId,
+        String previousStatus,
+        String newStatus,
+        Instant orderCreatedAt,
+        List<OrderEventLine> lines) {
+
+    // Statuses stay strings here: events are stored as JSON in the outbox
+    public static OrderStatusChangedEvent of(Order order, OrderStatus previousStatus) {
+        return new OrderStatusChangedEvent(
+                order.getId(),
+                order.getUserId(),
+                previousStatus.getValue(),
+                order.getStatus().getValue(),
+                order.getCreatedAt(),
+                order.getOrderItems().stream().map(OrderEventLine::of).toList());
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.today.search;
+
+import com.example.today.Model.Product;
+import com.example.today.Model.Specification;
+import com.example.today.Repository.ProductRepository;
+import com.example.today.dto.ProductSuggestion;
+import com.example.today.util.TransactionHooks;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process inverted index over product name, descriptions and specification
+ * name/value pairs. Reads are lock-free; writers are serialized so a document
+ * is never half-removed by two concurrent updates.
+ */
+@Component
+public class ProductTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductTextIndex.class);
+
+    private static final float NAME_WEIGHT = 4.0f;
+    private static final float SPECIFICATION_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.5f;
+    private static final float FULL_DESCRIPTION_WEIGHT = 1.0f;
+    private static final int MAX_PREFIX_EXPANSION = 200;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    // term -> (product id -> field-weighted term frequency)
+    private final ConcurrentSkipListMap<String, Map<String, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, IndexedDocument> documents = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductTextIndex(ProductRepository productRepository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        int indexed = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            PageRequest batch = PageRequest.of(0, REBUILD_BATCH_SIZE);
+            List<Product> products = productRepository.findFirstPage(batch);
+            while (!products.isEmpty()) {
+                for (Product product : products) {
+                    apply(toDocument(product));
+                }
+                count += products.size();
+                Product last = products.get(products.size() - 1);
+                // Keep the persistence context from growing with the catalog
+                entityManager.clear();
+                products = last.getCreatedAt() == null
+                        ? productRepository.findPageAfterUndated(last.getId(), batch)
+                        : productRepository.findPageAfter(last.getCreatedAt(), last.getId(), batch);
+            }
+            return count;
+        });
+        logger.info("Indexed {} products ({} terms) in {} ms",
+                indexed, postings.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Re-indexes the product. Must be called while its lazy collections are
+     * still loadable; inside a transaction the change is applied on commit.
+     */
+    public void index(Product product) {
+        IndexedDocument document = toDocument(product);
+        TransactionHooks.afterCommit(() -> apply(document));
+    }
+
+    public void remove(String productId) {
+        TransactionHooks.afterCommit(() -> {
+            writeLock.lock();
+            try {
+                removeDocument(productId);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Ranks products matching every query term; the last term is treated as a
+     * prefix so partially typed words already match.
+     */
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int documentCount = Math.max(documents.size(), 1);
+        Map<String, Double> scores = null;
+        for (int i = 0; i < terms.size(); i++) {
+            boolean prefix = i == terms.size() - 1;
+            Map<String, Double> termScores = score(terms.get(i), prefix, documentCount);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<String, Double> merged = new HashMap<>();
+                for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                    Double termScore = termScores.get(entry.getKey());
+                    if (termScore != null) {
+                        merged.put(entry.getKey(), entry.getValue() + termScore);
+                    }
+                }
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        PriorityQueue<Map.Entry<String, Double>> top =
+                new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<ProductSuggestion> suggestions = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Map.Entry<String, Double> entry = top.poll();
+            IndexedDocument document = documents.get(entry.getKey());
+            if (document != null) {
+                suggestions.add(new ProductSuggestion(entry.getKey(), document.name(), entry.getValue()));
+            }
+        }
+        Collections.reverse(suggestions);
+        return suggestions;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private Map<String, Double> score(String term, boolean prefix, int documentCount) {
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, Map<String, Float>> matches = prefix
+                ? prefixMatches(term)
+                : postingsFor(term);
+        for (Map<String, Float> termPostings : matches.values()) {
+            double idf = Math.log(1.0 + (double) documentCount / termPostings.size());
+            for (Map.Entry<String, Float> posting : termPostings.entrySet()) {
+                // A product matching several expansions keeps its best one
+                scores.merge(posting.getKey(), posting.getValue() * idf, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private Map<String, Map<String, Float>> postingsFor(String term) {
+        Map<String, Float> termPostings = postings.get(term);
+        return termPostings == null ? Map.of() : Map.of(term, termPostings);
+    }
+
+    private Map<String, Map<String, Float>> prefixMatches(String prefix) {
+        ConcurrentNavigableMap<String, Map<String, Float>> range =
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        Map<String, Map<String, Float>> matches = new HashMap<>();
+        for (Map.Entry<String, Map<String, Float>> entry : range.entrySet()) {
+            matches.put(entry.getKey(), entry.getValue());
+            if (matches.size() >= MAX_PREFIX_EXPANSION) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private void apply(IndexedDocument document) {
+        writeLock.lock();
+        try {
+            removeDocument(document.id());
+            for (Map.Entry<String, Float> term : document.terms().entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new ConcurrentHashMap<>())
+                        .put(document.id(), term.getValue());
+            }
+            documents.put(document.id(), document);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void removeDocument(String productId) {
+        IndexedDocument previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms().keySet()) {
+            postings.computeIfPresent(term, (key, termPostings) -> {
+                termPostings.remove(productId);
+                return termPostings.isEmpty() ? null : termPostings;
+            });
+        }
+    }
+
+    private IndexedDocument toDocument(Product product) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, product.getName(), NAME_WEIGHT);
+        addField(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+        addField(frequencies, product.getFullDescription(), FULL_DESCRIPTION_WEIGHT);
+        if (product.getSpecifications() != null) {
+            for (Specification specification : product.getSpecifications()) {
+                addField(frequencies, specification.getName(), SPECIFICATION_WEIGHT);
+                addField(frequencies, specification.getValue(), SPECIFICATION_WEIGHT);
+            }
+        }
+        // Dampen repeated words so long descriptions cannot dominate the name
+        frequencies.replaceAll((term, weight) -> (float) (1.0 + Math.log(weight)));
+        return new IndexedDocument(product.getId(), product.getName(), frequencies);
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private record IndexedDocument(String id, String name, Map<String, Float> terms) {
+    }
+}
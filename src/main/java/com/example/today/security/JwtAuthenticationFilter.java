@@ -1,26 +1,32 @@
 package com.example.today.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.Optional;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final boolean statelessPrincipal;
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
-                                   CustomUserDetailsService userDetailsService) {
+                                   PrincipalCache principalCache,
+                                   @Value("${app.jwt.stateless-principal:false}") boolean statelessPrincipal) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -38,11 +44,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
 
-        if (jwtTokenProvider.validateToken(jwt)) {
-            String userEmail = jwtTokenProvider.extractUsername(jwt);
+        Optional<Claims> claims = jwtTokenProvider.parseClaims(jwt);
+
+        if (claims.isPresent()) {
+            String userEmail = claims.get().getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = resolvePrincipal(claims.get());
 
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -57,4 +65,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal) {
+            Optional<JwtUserPrincipal> principal = jwtTokenProvider.toPrincipal(claims);
+            if (principal.isPresent()) {
+                return principal.get();
+            }
+        }
+        return principalCache.get(claims);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.today.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal built from verified JWT claims without touching the
+ * users table. Carries no password and no profile fields.
+ */
+public class JwtUserPrincipal implements UserPrincipal, UserDetails {
+    private final Long id;
+    private final String email;
+    private final String role;
+    private final boolean verified;
+
+    public JwtUserPrincipal(Long id, String email, String role, boolean verified) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.verified = verified;
+    }
+
+    @Override
+    public Long getId() { return id; }
+
+    @Override
+    public String getEmail() { return email; }
+
+    @Override
+    public String getRole() { return role; }
+
+    @Override
+    public boolean isVerified() { return verified; }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role == null ? List.of() : List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() { return null; }
+
+    @Override
+    public String getUsername() { return email; }
+
+    @Override
+    public boolean isEnabled() { return verified; }
+}
@@ -0,0 +1,88 @@
+package com.example.today.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users resolved from verified tokens, keyed by subject. An entry lives until
+ * the token that loaded it expires, capped by {@code maxTtl} so profile changes
+ * made on another instance are picked up within a bounded delay.
+ */
+@Component
+public class PrincipalCache {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<String, Entry> cache;
+
+    public PrincipalCache(CustomUserDetailsService userDetailsService,
+                          @Value("${app.jwt.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${app.jwt.principal-cache.max-ttl:5m}") Duration maxTtl) {
+        this.userDetailsService = userDetailsService;
+        long maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String subject, Entry entry, long currentTime) {
+                        long untilExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                entry.expiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String subject, Entry entry, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(subject, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String subject, Entry entry, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the user for already verified claims, loading it at most once per
+     * subject while the entry is live.
+     */
+    public UserDetails get(Claims claims) {
+        long expiresAt = claims.getExpiration() == null
+                ? System.currentTimeMillis()
+                : claims.getExpiration().getTime();
+        return cache.get(claims.getSubject(), subject ->
+                new Entry(userDetailsService.loadUserByUsername(subject), expiresAt)).user();
+    }
+
+    public void evict(String subject) {
+        cache.invalidate(subject);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("size", cache.estimatedSize());
+        data.put("hits", stats.hitCount());
+        data.put("misses", stats.missCount());
+        data.put("hit_rate", stats.hitRate());
+        data.put("evictions", stats.evictionCount());
+        return data;
+    }
+
+    private record Entry(UserDetails user, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.today.security;
+
+/**
+ * What controllers need to know about the caller. Implemented by the
+ * {@link com.example.today.Model.User} entity and, in stateless mode, by
+ * {@link JwtUserPrincipal} built straight from token claims.
+ */
+public interface UserPrincipal {
+    // Granted only outside the API; registration refuses it
+    String ADMIN_ROLE = "admin";
+
+    Long getId();
+    String getEmail();
+    String getRole();
+    boolean isVerified();
+}
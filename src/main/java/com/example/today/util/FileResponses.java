@@ -0,0 +1,82 @@
+package com.example.today.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+public final class FileResponses {
+
+    private static final String TOMCAT_SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String TOMCAT_SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String TOMCAT_SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String TOMCAT_SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileResponses() {
+    }
+
+    /**
+     * Serves a file from disk with a weak ETag, Last-Modified and the given
+     * Cache-Control, answering conditional requests with 304. The ETag comes
+     * from file metadata rather than a content hash, so files must be replaced
+     * (written to a temp file and moved) rather than rewritten in place: the
+     * replacement is a new inode, which changes the tag even when size and a
+     * coarse-grained mtime stay the same. On Tomcat's NIO connector the body
+     * is written by the connector with sendfile; elsewhere a
+     * FileSystemResource body is returned, which also handles Range requests.
+     * Returns 404 when the file is missing.
+     */
+    public static ResponseEntity<Resource> serve(Path path, CacheControl cacheControl, ServletWebRequest webRequest) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "W/\"" + Long.toHexString(size)
+                + "-" + Long.toHexString(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS))
+                + "-" + Integer.toHexString(Objects.hashCode(attributes.fileKey())) + "\"";
+        MediaType mediaType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        HttpServletResponse response = webRequest.getResponse();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null; // 304 already written
+        }
+
+        HttpServletRequest request = webRequest.getRequest();
+        if (Boolean.TRUE.equals(request.getAttribute(TOMCAT_SENDFILE_SUPPORT))) {
+            // Let the connector stream the file with sendfile once the handler returns
+            response.setContentType(mediaType.toString());
+            response.setContentLengthLong(size);
+            request.setAttribute(TOMCAT_SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(TOMCAT_SENDFILE_START, 0L);
+            request.setAttribute(TOMCAT_SENDFILE_END, size);
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .contentLength(size)
+                .body(new FileSystemResource(path));
+    }
+}
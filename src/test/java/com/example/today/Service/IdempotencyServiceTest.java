@@ -0,0 +1,162 @@
+package com.example.today.Service;
+
+import com.example.today.Controller.OrderController;
+import com.example.today.Repository.IdempotencyRecordRepository;
+import com.example.today.security.JwtUserPrincipal;
+import com.example.today.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(IdempotencyService.class)
+class IdempotencyServiceTest extends ProductJpaTest {
+
+    private static final String HASH = IdempotencyService.hash("request");
+    private static final String OTHER_HASH = IdempotencyService.hash("other request");
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void secondRequestWaitsWhileTheFirstIsInProgress() {
+        IdempotencyService.Claim first = idempotencyService.claim(1L, "in-progress", HASH);
+
+        assertEquals(IdempotencyService.Outcome.ACQUIRED, first.outcome());
+        assertEquals(IdempotencyService.Outcome.IN_PROGRESS,
+                idempotencyService.claim(1L, "in-progress", HASH).outcome());
+        assertEquals(IdempotencyService.Outcome.MISMATCH,
+                idempotencyService.claim(1L, "in-progress", OTHER_HASH).outcome());
+        // Keys are scoped to the user
+        assertEquals(IdempotencyService.Outcome.ACQUIRED,
+                idempotencyService.claim(2L, "in-progress", OTHER_HASH).outcome());
+    }
+
+    @Test
+    void completedRequestIsReplayedAndRejectedForOtherRequests() {
+        IdempotencyService.Claim claim = idempotencyService.claim(1L, "completed", HASH);
+        OrderResponse response = response(42L);
+        complete(idempotencyService, claim, response);
+
+        IdempotencyService.Claim replay = idempotencyService.claim(1L, "completed", HASH);
+        assertEquals(IdempotencyService.Outcome.REPLAY, replay.outcome());
+        assertEquals(response, replay.response());
+        assertEquals(IdempotencyService.Outcome.MISMATCH,
+                idempotencyService.claim(1L, "completed", OTHER_HASH).outcome());
+    }
+
+    @Test
+    void completedRequestIsReplayedFromTheTableWithoutTheCache() {
+        IdempotencyService.Claim claim = idempotencyService.claim(1L, "restart", HASH);
+        complete(idempotencyService, claim, response(43L));
+
+        // A fresh instance stands in for a restarted or different node
+        IdempotencyService restarted = newService();
+        IdempotencyService.Claim replay = restarted.claim(1L, "restart", HASH);
+
+        assertEquals(IdempotencyService.Outcome.REPLAY, replay.outcome());
+        assertEquals(43L, replay.response().id());
+        assertEquals(IdempotencyService.Outcome.MISMATCH, restarted.claim(1L, "restart", OTHER_HASH).outcome());
+    }
+
+    @Test
+    void releasedClaimCanBeAcquiredAgain() {
+        IdempotencyService.Claim claim = idempotencyService.claim(1L, "released", HASH);
+
+        idempotencyService.release(claim);
+
+        assertEquals(IdempotencyService.Outcome.ACQUIRED,
+                idempotencyService.claim(1L, "released", HASH).outcome());
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverByExactlyOneRetry() {
+        IdempotencyService.Claim abandoned = idempotencyService.claim(1L, "abandoned", HASH);
+        jdbcTemplate.update("UPDATE idempotency_records SET created_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofMinutes(5))), abandoned.recordId());
+
+        IdempotencyService.Claim takeover = idempotencyService.claim(1L, "abandoned", HASH);
+
+        assertEquals(IdempotencyService.Outcome.ACQUIRED, takeover.outcome());
+        assertEquals(abandoned.recordId(), takeover.recordId());
+        assertEquals(IdempotencyService.Outcome.IN_PROGRESS,
+                idempotencyService.claim(1L, "abandoned", HASH).outcome());
+        assertEquals(1, idempotencyRecordRepository.findAll().stream()
+                .filter(record -> "abandoned".equals(record.getIdempotencyKey()))
+                .count());
+    }
+
+    @Test
+    void failedCheckoutReleasesItsClaimForTheRetry() {
+        OrderService orderService = mock(OrderService.class);
+        when(orderService.createOrder(anyLong(), anyString(), anyString(), anyList(), any()))
+                .thenThrow(new RuntimeException("Insufficient stock for product 1"));
+        OrderController controller = new OrderController(orderService, mock(OrderExportService.class),
+                idempotencyService);
+        JwtUserPrincipal user = new JwtUserPrincipal(1L, "buyer@example.com", "buyer", true);
+        Map<String, Object> request = Map.of(
+                "shipping_address", "address",
+                "payment_method", "card",
+                "items", List.of(Map.of("product_id", 1, "quantity", 2)));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> controller.createOrder(user, "failed-checkout", request));
+
+        assertTrue(error.getMessage().contains("Insufficient stock"), error.getMessage());
+        // Without the release the retry would see IN_PROGRESS until the lease expires
+        assertEquals(0, idempotencyRecordRepository.findAll().stream()
+                .filter(record -> "failed-checkout".equals(record.getIdempotencyKey()))
+                .count());
+        // The retry reaches checkout again instead of being answered with 409
+        assertThrows(RuntimeException.class, () -> controller.createOrder(user, "failed-checkout", request));
+        verify(orderService, times(2)).createOrder(anyLong(), anyString(), anyString(), anyList(), any());
+    }
+
+    private void complete(IdempotencyService service, IdempotencyService.Claim claim, OrderResponse response) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> service.complete(claim, response));
+    }
+
+    private IdempotencyService newService() {
+        return new IdempotencyService(idempotencyRecordRepository, objectMapper, transactionManager,
+                100, Duration.ofMinutes(10), Duration.ofMinutes(2), Duration.ofHours(24));
+    }
+
+    private static OrderResponse response(Long orderId) {
+        return new OrderResponse(orderId, 1L, 20.0, "address", "card", "pending",
+                Instant.parse("2026-01-01T00:00:00Z"), List.of());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.today.Service;
+
+import com.example.today.Model.Order;
+import com.example.today.Model.OrderStatus;
+import com.example.today.Repository.OrderRepository;
+import com.example.today.Repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "app.orders.bulk-status.max-size=3")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderService.class, OrderStateMachine.class, StockReservationService.class, ProductCache.class,
+        CartService.class, OutboxService.class, IdempotencyService.class,
+        OrderServiceBulkStatusTest.Config.class})
+class OrderServiceBulkStatusTest extends ProductJpaTest {
+
+    private static final Long SELLER = 7L;
+    private static final Long OTHER_SELLER = 8L;
+
+    @TestConfiguration
+    static class Config {
+        // Leaves every event to the poller, which does not run in this test
+        @Bean
+        TaskExecutor orderEventExecutor() {
+            return task -> {
+                throw new TaskRejectedException("Dispatch disabled");
+            };
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void clean() {
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void updatesEveryOrderAndReleasesTheirStock() {
+        saveProduct("11", SELLER, 10);
+        Order first = checkout("11", 2);
+        Order second = checkout("11", 3);
+        long eventsBefore = outboxEventRepository.count();
+
+        OrderService.BulkStatusResult result = orderService.updateSellerOrderStatuses(
+                SELLER, List.of(first.getId(), second.getId()), "Cancelled");
+
+        assertTrue(result.applied());
+        assertEquals(Set.of(first.getId(), second.getId()), Set.copyOf(result.updated()));
+        assertEquals(OrderStatus.CANCELLED, statusOf(first));
+        assertEquals(OrderStatus.CANCELLED, statusOf(second));
+        assertEquals(10, stockOf("11"));
+        assertEquals(eventsBefore + 2, outboxEventRepository.count());
+    }
+
+    @Test
+    void reopeningCancelledOrdersReservesTheirStockAgain() {
+        saveProduct("12", SELLER, 5);
+        Order order = checkout("12", 4);
+        orderService.updateSellerOrderStatuses(SELLER, List.of(order.getId()), "cancelled");
+        assertEquals(5, stockOf("12"));
+
+        OrderService.BulkStatusResult result = orderService.updateSellerOrderStatuses(
+                SELLER, List.of(order.getId()), "pending");
+
+        assertTrue(result.applied());
+        assertEquals(OrderStatus.PENDING, statusOf(order));
+        assertEquals(1, stockOf("12"));
+    }
+
+    @Test
+    void rejectsEverythingWhenOneOrderCannotMakeTheTransition() {
+        saveProduct("13", SELLER, 10);
+        Order pending = checkout("13", 1);
+        Order delivered = checkout("13", 2);
+        setStatus(delivered, OrderStatus.DELIVERED);
+        long eventsBefore = outboxEventRepository.count();
+
+        OrderService.BulkStatusResult result = orderService.updateSellerOrderStatuses(
+                SELLER, List.of(pending.getId(), delivered.getId()), "cancelled");
+
+        assertFalse(result.applied());
+        assertTrue(result.updated().isEmpty());
+        assertEquals(Map.of(delivered.getId(), OrderStatus.DELIVERED), result.rejected());
+        assertEquals(OrderStatus.PENDING, statusOf(pending));
+        assertEquals(7, stockOf("13"));
+        assertEquals(eventsBefore, outboxEventRepository.count());
+    }
+
+    @Test
+    void reportsOrdersOfOtherSellersAndUnknownIdsAsNotFound() {
+        saveProduct("14", SELLER, 10);
+        saveProduct("15", OTHER_SELLER, 10);
+        Order own = checkout("14", 1);
+        Order foreign = checkout("15", 1);
+
+        OrderService.BulkStatusResult result = orderService.updateSellerOrderStatuses(
+                SELLER, List.of(own.getId(), foreign.getId(), -1L), "sold");
+
+        assertFalse(result.applied());
+        assertEquals(List.of(foreign.getId(), -1L), result.notFound());
+        assertEquals(OrderStatus.PENDING, statusOf(own));
+        assertEquals(OrderStatus.PENDING, statusOf(foreign));
+    }
+
+    @Test
+    void rejectsUnknownStatusesAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.updateSellerOrderStatuses(SELLER, List.of(1L), "refunded"));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.updateSellerOrderStatuses(SELLER, List.of(1L, 2L, 3L, 4L), "sold"));
+    }
+
+    private Order checkout(String productId, int quantity) {
+        OrderService.OrderItemRequest item = new OrderService.OrderItemRequest();
+        item.setProductId(Long.valueOf(productId));
+        item.setQuantity(quantity);
+        return orderService.createOrder(1L, "address", "card", List.of(item));
+    }
+
+    private void setStatus(Order order, OrderStatus status) {
+        Order stored = orderRepository.findById(order.getId()).orElseThrow();
+        stored.setStatus(status);
+        orderRepository.save(stored);
+    }
+
+    private OrderStatus statusOf(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getStatus();
+    }
+}
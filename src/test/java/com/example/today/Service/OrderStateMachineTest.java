@@ -0,0 +1,115 @@
+package com.example.today.Service;
+
+import com.example.today.Model.Order;
+import com.example.today.Model.OrderItem;
+import com.example.today.Model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import({OrderStateMachine.class, StockReservationService.class, ProductCache.class})
+class OrderStateMachineTest extends ProductJpaTest {
+
+    @Autowired
+    private OrderStateMachine orderStateMachine;
+
+    @Test
+    void transitionTableAllowsOnlyListedMoves() {
+        Map<OrderStatus, Set<OrderStatus>> allowed = Map.of(
+                OrderStatus.PENDING, EnumSet.of(OrderStatus.SOLD, OrderStatus.CANCELLED),
+                OrderStatus.SOLD, EnumSet.of(OrderStatus.SHIPPED, OrderStatus.CANCELLED),
+                OrderStatus.SHIPPED, EnumSet.of(OrderStatus.DELIVERED),
+                OrderStatus.DELIVERED, EnumSet.noneOf(OrderStatus.class),
+                OrderStatus.CANCELLED, EnumSet.of(OrderStatus.PENDING));
+
+        for (OrderStatus from : OrderStatus.values()) {
+            for (OrderStatus to : OrderStatus.values()) {
+                assertEquals(allowed.get(from).contains(to), orderStateMachine.canTransition(from, to),
+                        from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void sellingAnOrderForTheLastUnitsNeedsNoFurtherStock() {
+        // Checkout already reserved the last two units
+        saveProduct("101", 0);
+        Order order = order(OrderStatus.PENDING, 101L, 2);
+
+        orderStateMachine.transition(order, OrderStatus.SOLD);
+
+        assertEquals(OrderStatus.SOLD, order.getStatus());
+        assertEquals(0, stockOf("101"));
+    }
+
+    @Test
+    void cancelReleasesAndReopenReservesStock() {
+        saveProduct("201", 3);
+        Order order = order(OrderStatus.SOLD, 201L, 2);
+
+        orderStateMachine.transition(order, OrderStatus.CANCELLED);
+        assertEquals(5, stockOf("201"));
+
+        orderStateMachine.transition(order, OrderStatus.PENDING);
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        assertEquals(3, stockOf("201"));
+    }
+
+    @Test
+    void reopenFailsWhenTheStockWasSoldMeanwhile() {
+        saveProduct("301", 1);
+        Order order = order(OrderStatus.CANCELLED, 301L, 2);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> orderStateMachine.transition(order, OrderStatus.PENDING));
+
+        assertTrue(error.getMessage().contains("Insufficient stock"), error.getMessage());
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        assertEquals(1, stockOf("301"));
+    }
+
+    @Test
+    void transitionAllReleasesStockOfEveryOrderTogether() {
+        saveProduct("401", 0);
+        Order pending = order(OrderStatus.PENDING, 401L, 2);
+        Order sold = order(OrderStatus.SOLD, 401L, 3);
+
+        orderStateMachine.transitionAll(List.of(pending, sold), OrderStatus.CANCELLED);
+
+        assertEquals(OrderStatus.CANCELLED, pending.getStatus());
+        assertEquals(OrderStatus.CANCELLED, sold.getStatus());
+        assertEquals(5, stockOf("401"));
+    }
+
+    @Test
+    void transitionAllChangesNothingWhenOneOrderCannotMove() {
+        saveProduct("501", 0);
+        Order pending = order(OrderStatus.PENDING, 501L, 2);
+        Order delivered = order(OrderStatus.DELIVERED, 501L, 1);
+
+        assertThrows(RuntimeException.class,
+                () -> orderStateMachine.transitionAll(List.of(pending, delivered), OrderStatus.CANCELLED));
+
+        assertEquals(OrderStatus.PENDING, pending.getStatus());
+        assertEquals(OrderStatus.DELIVERED, delivered.getStatus());
+        assertEquals(0, stockOf("501"));
+    }
+
+    private Order order(OrderStatus status, Long productId, int quantity) {
+        Order order = new Order();
+        order.setStatus(status);
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        order.setOrderItems(List.of(item));
+        return order;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.today.Service;
+
+import com.example.today.Model.Product;
+import com.example.today.Repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Service tests against an in-memory H2 database, each context with its own.
+ * Tests run outside a transaction so that the services under test commit and
+ * roll back exactly as they do in production; subclasses {@code @Import} the
+ * services they need and add properties with {@code @TestPropertySource}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};NON_KEYWORDS=VALUE;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class ProductJpaTest {
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    protected void saveProduct(String id, int stock) {
+        saveProduct(id, null, stock);
+    }
+
+    protected void saveProduct(String id, Long sellerId, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(id);
+        product.setPrice(10.0);
+        product.setStock(stock);
+        product.setSeller_id(sellerId);
+        product.setCreatedAt(Instant.now());
+        productRepository.save(product);
+    }
+
+    protected int stockOf(String id) {
+        return productRepository.findById(id).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.today.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import({StockReservationService.class, ProductCache.class})
+class StockReservationServiceTest extends ProductJpaTest {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        int initialStock = 50;
+        saveProduct("stress-1", initialStock);
+        saveProduct("stress-2", initialStock * 10);
+
+        int threads = 16;
+        int attemptsPerThread = 20;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        transaction.executeWithoutResult(status ->
+                                stockReservationService.reserve(Map.of("stress-1", 1, "stress-2", 1)));
+                        reserved.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        assertTrue(e.getMessage().contains("Insufficient stock"), e.getMessage());
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(initialStock, reserved.get());
+        assertEquals(threads * attemptsPerThread - initialStock, rejected.get());
+        assertEquals(0, stockOf("stress-1"));
+        // Rejected checkouts must not keep their decrement of the other line
+        assertEquals(initialStock * 10 - initialStock, stockOf("stress-2"));
+    }
+
+    @Test
+    void failedLineRollsBackWholeReservation() {
+        saveProduct("partial-1", 5);
+        saveProduct("partial-2", 1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () ->
+                transaction.executeWithoutResult(status ->
+                        stockReservationService.reserve(Map.of("partial-1", 2, "partial-2", 3))));
+
+        assertTrue(error.getMessage().contains("Insufficient stock"));
+        assertEquals(5, stockOf("partial-1"));
+        assertEquals(1, stockOf("partial-2"));
+    }
+
+    @Test
+    void releaseRestoresStock() {
+        saveProduct("release-1", 3);
+
+        stockReservationService.reserve(Map.of("release-1", 2));
+        stockReservationService.release(Map.of("release-1", 2));
+
+        assertEquals(3, stockOf("release-1"));
+    }
+}